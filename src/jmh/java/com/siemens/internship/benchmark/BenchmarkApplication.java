@@ -0,0 +1,47 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.InternshipApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Boots the application without the web tier against a private in-memory H2 database
+ * and seeds it with a given number of items.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * @param args {@code --key=value} arguments, which unlike the defaults below override application.properties
+     */
+    static ConfigurableApplicationContext start(String name, int rows, String... args) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InternshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + name + "-" + rows + ";DB_CLOSE_DELAY=-1",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN")
+                .run(args);
+        seed(context.getBean(JdbcTemplate.class), rows);
+        return context;
+    }
+
+    /**
+     * Inserts the rows with a single set-based statement and moves the id sequence past them.
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        jdbcTemplate.update("DELETE FROM item");
+        jdbcTemplate.update("INSERT INTO item (id, name, description, status, email, version) "
+                + "SELECT X, 'Item ' || X, 'Benchmark item', 'NEW', 'item' || X || '@example.com', 0 "
+                + "FROM SYSTEM_RANGE(1, ?)", rows);
+        jdbcTemplate.execute("ALTER SEQUENCE item_seq RESTART WITH " + (rows + 100));
+    }
+
+    static void resetStatus(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("UPDATE item SET status = 'NEW'");
+    }
+}
@@ -0,0 +1,72 @@
+package com.siemens.internship.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemContentConfiguration;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Jackson serialization of item lists per negotiated format, configured like the application's mappers.
+ * {@code serializeListGzip} adds the cost of response compression on top.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemSerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({MediaType.APPLICATION_JSON_VALUE, ItemContentConfiguration.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<Item> items;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = ItemContentConfiguration.mapperFor(Jackson2ObjectMapperBuilder.json().build(),
+                MediaType.parseMediaType(format));
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Item.class));
+        reader = objectMapper.readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Item.class));
+        items = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            items.add(new Item(i, "Item " + i, "Benchmark item", "NEW", "item" + i + "@example.com"));
+        }
+        serialized = writer.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return writer.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] serializeListGzip() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(serialized.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            writer.writeValue(gzip, items);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public List<Item> deserializeList() throws Exception {
+        return reader.readValue(serialized);
+    }
+}
@@ -0,0 +1,100 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemCache;
+import com.siemens.internship.ItemService;
+import com.siemens.internship.ProcessingSummary;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service and repository hot paths at 1k/100k/1M rows.
+ * Lookups by id are measured twice: served by the cache, and with the id evicted first, so that every call
+ * goes through the cache miss to the store.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemCache itemCache;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("service", rows);
+        itemService = context.getBean(ItemService.class);
+        itemCache = context.getBean(ItemCache.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Item findByIdCached() {
+        return itemService.findById(ThreadLocalRandom.current().nextLong(1, rows + 1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Item findByIdUncached() {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        itemCache.evict(id);
+        return itemService.findById(id);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Item save() {
+        return itemService.save(new Item(null, "Benchmark", "Inserted by JMH", "NEW", "bench@example.com"));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public List<Item> findAll() {
+        return itemService.findAll();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public ProcessingSummary processItemsInBatches(UnprocessedItems unprocessed) throws Exception {
+        return itemService.processItemsInBatches().get();
+    }
+
+    /**
+     * Resets the status of every item before each processing run, outside of the measured time.
+     * A state of its own, so that the per-invocation setup does not slow down the other benchmarks.
+     */
+    @State(Scope.Benchmark)
+    public static class UnprocessedItems {
+
+        @Setup(Level.Invocation)
+        public void resetStatus(ItemServiceBenchmark benchmark) {
+            BenchmarkApplication.resetStatus(benchmark.jdbcTemplate);
+        }
+    }
+}
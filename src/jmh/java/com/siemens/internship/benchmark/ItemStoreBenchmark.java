@@ -0,0 +1,106 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.store.ItemStorageProperties;
+import com.siemens.internship.store.ItemStore;
+import com.siemens.internship.store.MappedItemStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ItemStore} backends side by side: Hibernate over in-memory H2 against the memory-mapped log.
+ * Both bypass the item cache, so every lookup reaches the backend. The application cannot run on the log yet,
+ * so the {@link MappedItemStore} is opened on its own rather than through the application context.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemStoreBenchmark {
+
+    @Param({"JPA", "MAPPED"})
+    public String storage;
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private ItemStore store;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("item-store-");
+        if ("MAPPED".equals(storage)) {
+            ItemStorageProperties properties = new ItemStorageProperties();
+            properties.setDirectory(directory);
+            store = new MappedItemStore(properties);
+            // the JPA backend reads the rows seeded into the table, the log has to be filled through the store
+            for (int i = 1; i <= rows; i++) {
+                store.save(new Item(null, "Item " + i, "Benchmark item", "NEW", "item" + i + "@example.com"));
+            }
+        } else {
+            context = BenchmarkApplication.start("store", rows);
+            store = context.getBean(ItemStore.class);
+        }
+        ids = store.findAllIds().stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (store instanceof MappedItemStore mapped) {
+            mapped.close();
+        }
+        if (context != null) {
+            context.close();
+        }
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Optional<Item> findById() {
+        return store.findById(randomId());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Item insert() {
+        return store.save(new Item(null, "Benchmark", "Inserted by JMH", "NEW", "bench@example.com"));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Item update() {
+        // read-modify-write, the stored version has to be passed back
+        Item item = store.findById(randomId()).orElseThrow();
+        item.setDescription("Updated by JMH");
+        return store.save(item);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public List<Long> findAllIds() {
+        return store.findAllIds();
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,91 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemValidator;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of an item list, one in ten invalid: Bean Validation with the former regex {@code @Pattern},
+ * Bean Validation with {@code @ValidEmail}, and the single pass of {@link ItemValidator#validateAll(List)}.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemValidationBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private final ItemValidator itemValidator = new ItemValidator();
+    private List<Item> items;
+    private List<PatternItem> patternItems;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        items = new ArrayList<>(size);
+        patternItems = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String email = i % 10 == 0 ? "item" + i + "-example.com" : "item" + i + "@example.com";
+            items.add(new Item((long) i, "Item " + i, "Benchmark item", "NEW", email));
+            patternItems.add(new PatternItem("Item " + i, email));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public void beanValidationWithPattern(Blackhole blackhole) {
+        for (PatternItem item : patternItems) {
+            blackhole.consume(validator.validate(item));
+        }
+    }
+
+    @Benchmark
+    public void beanValidationWithValidEmail(Blackhole blackhole) {
+        for (Item item : items) {
+            blackhole.consume(validator.validate(item));
+        }
+    }
+
+    @Benchmark
+    public List<ItemValidator.FieldError> itemValidator() {
+        return itemValidator.validateAll(items);
+    }
+
+    /**
+     * The constraints of {@link Item} before {@code @ValidEmail}.
+     */
+    public static class PatternItem {
+
+        @NotEmpty
+        private final String name;
+
+        @Pattern(regexp = "^[A-Za-z0-9+_.-]+@(.+)$", message = "Email must be valid")
+        private final String email;
+
+        PatternItem(String name, String email) {
+            this.name = name;
+            this.email = email;
+        }
+    }
+}
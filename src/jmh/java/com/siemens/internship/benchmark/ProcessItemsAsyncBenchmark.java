@@ -0,0 +1,55 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-item path of {@link ItemService#processItemsAsync()} at 1k/100k/1M rows.
+ * Every item is loaded in its own transaction, run through the {@code ItemProcessor} chain (text and email
+ * normalization, then validation), marked processed and saved together with its change record, with the work
+ * in flight bounded by the adaptive limiter. Compare with the batch mode in {@link ItemServiceBenchmark}.
+ * An iteration over 1M rows takes several minutes; narrow the sizes with {@code -p rows=...} for quick runs.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class ProcessItemsAsyncBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("async", rows);
+        itemService = context.getBean(ItemService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatus() {
+        BenchmarkApplication.resetStatus(jdbcTemplate);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> processItemsAsync() throws Exception {
+        return itemService.processItemsAsync().get().processed();
+    }
+}
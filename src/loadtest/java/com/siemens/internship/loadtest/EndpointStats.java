@@ -0,0 +1,49 @@
+package com.siemens.internship.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters of one operation.
+ */
+final class EndpointStats {
+
+    private static final long MAX_TRACKED_LATENCY = TimeUnit.MINUTES.toMicros(2);
+
+    private final Histogram latencyMicros = new ConcurrentHistogram(MAX_TRACKED_LATENCY, 3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * @param latencyNanos time since the request was <em>scheduled</em> to be sent, so that a stalled
+     *                     server is not hidden by the generator falling behind (coordinated omission)
+     */
+    void record(long latencyNanos, boolean success) {
+        requests.increment();
+        if (!success) {
+            errors.increment();
+        }
+        latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_TRACKED_LATENCY));
+    }
+
+    void reset() {
+        latencyMicros.reset();
+        requests.reset();
+        errors.reset();
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    Histogram histogram() {
+        return latencyMicros;
+    }
+}
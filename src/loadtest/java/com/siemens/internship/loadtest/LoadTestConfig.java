@@ -0,0 +1,49 @@
+package com.siemens.internship.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from system properties.
+ *
+ * @param baseUrl   root of the running application, {@code loadtest.baseUrl} (default http://localhost:8080)
+ * @param rps       target request rate, {@code loadtest.rps} (default 200)
+ * @param duration  measured run time, {@code loadtest.duration} as ISO-8601 (default PT30S)
+ * @param warmup    unmeasured run time before it, {@code loadtest.warmup} (default PT5S)
+ * @param seedItems items created before the run so reads and updates have targets, {@code loadtest.seedItems}
+ * @param mix       relative weight per operation, {@code loadtest.mix}
+ *                  (default {@code GET=60,LIST=10,CREATE=15,UPDATE=10,DELETE=4,PROCESS=1})
+ */
+record LoadTestConfig(URI baseUrl, int rps, Duration duration, Duration warmup, int seedItems,
+                      Map<Operation, Integer> mix) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                URI.create(System.getProperty("loadtest.baseUrl", "http://localhost:8080")),
+                Integer.parseInt(System.getProperty("loadtest.rps", "200")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT30S")),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT5S")),
+                Integer.parseInt(System.getProperty("loadtest.seedItems", "200")),
+                parseMix(System.getProperty("loadtest.mix", "GET=60,LIST=10,CREATE=15,UPDATE=10,DELETE=4,PROCESS=1")));
+    }
+
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix must contain at least one operation");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,178 @@
+package com.siemens.internship.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-model load generator: requests are started at a fixed rate regardless of how fast the server answers,
+ * and each latency is measured from the request's scheduled start. Prints p50/p99/p99.9 latency, error rate
+ * and throughput per endpoint, and writes the same report as JSON to {@code target/loadtest-result.json}.
+ */
+public final class LoadTestRunner {
+
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Path RESULT_FILE = Path.of("target", "loadtest-result.json");
+
+    private final LoadTestConfig config;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final List<Long> knownIds = Collections.synchronizedList(new ArrayList<>());
+    private final Operation[] schedule;
+
+    LoadTestRunner(LoadTestConfig config) {
+        this.config = config;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+        List<Operation> weighted = new ArrayList<>();
+        config.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        this.schedule = weighted.toArray(new Operation[0]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        LoadTestRunner runner = new LoadTestRunner(config);
+        runner.seed();
+        runner.run(config.warmup().toNanos());
+        runner.stats.values().forEach(EndpointStats::reset);
+        runner.run(config.duration().toNanos());
+        runner.report(System.out);
+        runner.writeJson(RESULT_FILE);
+    }
+
+    void seed() throws IOException, InterruptedException {
+        for (int i = 0; i < config.seedItems(); i++) {
+            HttpResponse<String> response = client.send(Operation.CREATE.request(config.baseUrl(), null),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode()
+                        + ", is the application running at " + config.baseUrl() + "?");
+            }
+            rememberId(response.body());
+        }
+    }
+
+    /**
+     * Issues requests at the configured rate for {@code durationNanos} and waits for the outstanding ones.
+     */
+    void run(long durationNanos) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / config.rps();
+        long start = System.nanoTime();
+        List<CompletableFuture<?>> outstanding = new ArrayList<>();
+
+        for (long scheduled = start; scheduled - start < durationNanos; scheduled += interval) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            outstanding.add(fire(schedule[ThreadLocalRandom.current().nextInt(schedule.length)], scheduled));
+            outstanding.removeIf(CompletableFuture::isDone);
+        }
+        CompletableFuture.allOf(outstanding.toArray(new CompletableFuture[0])).join();
+    }
+
+    private CompletableFuture<?> fire(Operation operation, long scheduledNanos) {
+        Long id = null;
+        if (operation.needsId()) {
+            id = operation == Operation.DELETE ? takeId() : pickId();
+            if (id == null) {
+                operation = Operation.CREATE;
+            }
+        }
+        Operation issued = operation;
+        HttpRequest request = issued.request(config.baseUrl(), id);
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    long latency = System.nanoTime() - scheduledNanos;
+                    boolean success = error == null && response.statusCode() < 400;
+                    stats.get(issued).record(latency, success);
+                    if (success && issued == Operation.CREATE) {
+                        rememberId(response.body());
+                    }
+                    return null;
+                });
+    }
+
+    private void rememberId(String body) {
+        Matcher matcher = ID_PATTERN.matcher(body);
+        if (matcher.find()) {
+            knownIds.add(Long.parseLong(matcher.group(1)));
+        }
+    }
+
+    private Long pickId() {
+        synchronized (knownIds) {
+            return knownIds.isEmpty() ? null : knownIds.get(ThreadLocalRandom.current().nextInt(knownIds.size()));
+        }
+    }
+
+    private Long takeId() {
+        synchronized (knownIds) {
+            return knownIds.isEmpty() ? null : knownIds.remove(knownIds.size() - 1);
+        }
+    }
+
+    void report(PrintStream out) {
+        double seconds = config.duration().toMillis() / 1000.0;
+        out.printf(Locale.ROOT, "%nTarget %d req/s for %s against %s%n", config.rps(), config.duration(), config.baseUrl());
+        out.printf(Locale.ROOT, "%-32s %9s %8s %9s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        stats.forEach((operation, endpoint) -> {
+            if (endpoint.requests() == 0) {
+                return;
+            }
+            Histogram histogram = endpoint.histogram();
+            out.printf(Locale.ROOT, "%-32s %9d %7.2f%% %9.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    operation.label(), endpoint.requests(), 100.0 * endpoint.errors() / endpoint.requests(),
+                    endpoint.requests() / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+        });
+    }
+
+    void writeJson(Path file) throws IOException {
+        double seconds = config.duration().toMillis() / 1000.0;
+        List<String> entries = new ArrayList<>();
+        stats.forEach((operation, endpoint) -> {
+            if (endpoint.requests() == 0) {
+                return;
+            }
+            Histogram histogram = endpoint.histogram();
+            entries.add(String.format(Locale.ROOT,
+                    "  {\"endpoint\": \"%s\", \"requests\": %d, \"errors\": %d, \"throughput\": %.2f, "
+                            + "\"p50Ms\": %.3f, \"p99Ms\": %.3f, \"p999Ms\": %.3f, \"maxMs\": %.3f}",
+                    operation.label(), endpoint.requests(), endpoint.errors(), endpoint.requests() / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue())));
+        });
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "[\n" + String.join(",\n", entries) + "\n]\n");
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.siemens.internship.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The requests the load generator can issue against {@code ItemController}.
+ */
+enum Operation {
+    GET("GET /api/items/{id}"),
+    LIST("GET /api/items?limit=100"),
+    CREATE("POST /api/items"),
+    UPDATE("PUT /api/items/{id}"),
+    DELETE("DELETE /api/items/{id}"),
+    PROCESS("GET /api/items/process/batch");
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    /**
+     * Whether the operation needs the id of an existing item.
+     */
+    boolean needsId() {
+        return this == GET || this == UPDATE || this == DELETE;
+    }
+
+    HttpRequest request(URI baseUrl, Long id) {
+        HttpRequest.Builder builder = switch (this) {
+            case GET -> HttpRequest.newBuilder(baseUrl.resolve("/api/items/" + id)).GET();
+            case LIST -> HttpRequest.newBuilder(baseUrl.resolve("/api/items?limit=100")).GET();
+            case CREATE -> HttpRequest.newBuilder(baseUrl.resolve("/api/items"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(itemJson(null)));
+            case UPDATE -> HttpRequest.newBuilder(baseUrl.resolve("/api/items/" + id))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(itemJson(id)));
+            case DELETE -> HttpRequest.newBuilder(baseUrl.resolve("/api/items/" + id)).DELETE();
+            case PROCESS -> HttpRequest.newBuilder(baseUrl.resolve("/api/items/process/batch")).GET();
+        };
+        return builder.timeout(TIMEOUT).build();
+    }
+
+    private static String itemJson(Long id) {
+        int n = ThreadLocalRandom.current().nextInt(1_000_000);
+        return "{" + (id == null ? "" : "\"id\":" + id + ",")
+                + "\"name\":\"Load " + n + "\",\"description\":\"Generated by the load test\","
+                + "\"status\":\"NEW\",\"email\":\"load" + n + "@example.com\"}";
+    }
+}
@@ -0,0 +1,107 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limiter.
+ * Callers take a slot before submitting work and give it back with the latency observed since the submission.
+ * While latencies stay under the threshold and the limit is actually used, the limit grows by one per window
+ * (additive increase); a slow or failed call shrinks it by the backoff ratio (multiplicative decrease).
+ * The number of queued tasks therefore stays bounded and the limiter backs off when the datasource saturates.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private final ItemProcessingProperties.Limiter settings;
+    private final int maxLimit;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private long rejected;
+
+    public AdaptiveConcurrencyLimiter(ItemProcessingProperties properties) {
+        this.settings = properties.getLimiter();
+        // slots beyond the pool threads only queue work in the executor, so a pool caps the limit
+        this.maxLimit = properties.getExecutor() == ItemProcessingProperties.ExecutorType.VIRTUAL
+                ? settings.getMaxLimit()
+                : Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), properties.getPoolSize()));
+        this.limit = Math.min(settings.getInitialLimit(), maxLimit);
+    }
+
+    /**
+     * Waits up to {@code timeout} for a free slot.
+     *
+     * @return {@code false} if no slot became available in time; the rejection is counted
+     */
+    public boolean tryAcquire(Duration timeout) throws InterruptedException {
+        long remaining = timeout.toNanos();
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    rejected++;
+                    return false;
+                }
+                remaining = slotFreed.awaitNanos(remaining);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a slot and adjusts the limit from the outcome of the call.
+     *
+     * @param latencyNanos time from submitting the task to its completion, including the wait for a thread
+     * @param success      whether the task completed without an error
+     */
+    public void release(long latencyNanos, boolean success) {
+        lock.lock();
+        try {
+            boolean saturated = inFlight >= (int) limit;
+            inFlight--;
+            if (!success || latencyNanos > settings.getLatencyThreshold().toNanos()) {
+                limit = Math.max(settings.getMinLimit(), limit * settings.getBackoffRatio());
+            } else if (saturated) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("item.processing.limiter.limit", this, limiter -> limiter.snapshot().limit())
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("item.processing.limiter.in.flight", this, limiter -> limiter.snapshot().inFlight())
+                .description("Items currently holding a processing slot")
+                .register(registry);
+        FunctionCounter.builder("item.processing.limiter.rejected", this, limiter -> limiter.snapshot().rejected())
+                .description("Submissions that timed out waiting for a processing slot")
+                .register(registry);
+    }
+
+    public LimiterSnapshot snapshot() {
+        lock.lock();
+        try {
+            return new LimiterSnapshot((int) limit, inFlight, rejected);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,31 +1,108 @@
 package com.siemens.internship;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
-import jakarta.validation.constraints.Pattern;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
 
 @Entity
+// (status, id) also serves the id ordering of keyset pages filtered by status
+@Table(indexes = {
+        @Index(name = "idx_item_status_id", columnList = "status, id"),
+        @Index(name = "idx_item_email", columnList = "email"),
+        @Index(name = "idx_item_processed_at_id", columnList = "processedAt, id")
+})
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 public class Item {
+
+    /**
+     * Ids handed out per round trip to {@code item_seq}.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    // pooled sequence: one round trip hands out 50 ids, which keeps batched inserts batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     @NotEmpty
     private String name;
     private String description;
     private String status;
 
-    @Pattern(regexp = "^[A-Za-z0-9+_.-]+@(.+)$", message = "Email must be valid")
+    // hand-written check instead of a regex @Pattern, see ItemValidator
+    @ValidEmail
     private String email;
+
+    // optimistic lock: bumped by every update, stale writers get a conflict instead of overwriting.
+    // The default fills rows that predate the column when the schema update adds it, since the conditional
+    // statements of ItemRepository and Hibernate's own version check never match a NULL version
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    // time of the last write of any kind
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant modifiedAt;
+
+    // set by processing and cleared by every client write, so the items due for processing are
+    // exactly those where it is null: an index seek instead of a comparison across the whole table
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant processedAt;
+
+    // cluster mode: the processing run that claimed the item and until when the claim holds, see ItemLeaseManager
+    @JsonIgnore
+    private String leaseOwner;
+    @JsonIgnore
+    private Instant leaseExpiresAt;
+
+    public Item(Long id, String name, String description, String status, String email) {
+        this(id, name, description, status, email, null);
+    }
+
+    public Item(Long id, String name, String description, String status, String email, Long version) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.status = status;
+        this.email = email;
+        this.version = version;
+    }
+
+    /**
+     * Records a client change; the item is due for processing again.
+     */
+    public void markModified(Instant now) {
+        this.modifiedAt = now;
+        this.processedAt = null;
+    }
+
+    /**
+     * Records that the item has been processed and releases its lease, if any.
+     */
+    public void markProcessed(Instant now) {
+        this.status = "PROCESSED";
+        this.modifiedAt = now;
+        this.processedAt = now;
+        this.leaseOwner = null;
+        this.leaseExpiresAt = null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,263 @@
+package com.siemens.internship;
+
+import com.siemens.internship.change.ItemChangeLog;
+import com.siemens.internship.change.ItemChangeType;
+import com.siemens.internship.cluster.ItemLeaseManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Set-based processing engine.
+ * Instead of one SELECT and one UPDATE per item, ids are walked in keyset-paginated chunks and every chunk
+ * is loaded with one query, updated with one bulk statement and committed in its own transaction.
+ * Throughput therefore scales with the chunk size rather than with the number of threads.
+ */
+@Component
+public class ItemBatchProcessor {
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemProcessingProperties properties;
+    private final ItemCache itemCache;
+    private final ItemChangeLog changeLog;
+    private final ItemLeaseManager leaseManager;
+    private final RetryPolicy retryPolicy;
+    // the shared item processing executor; parallelism only bounds how many chunks one walk has in flight
+    private final Executor chunkExecutor;
+    private final Timer chunkTimer;
+    private final Counter itemsProcessed;
+    private final Counter itemsFailed;
+
+    public ItemBatchProcessor(ItemRepository itemRepository,
+                              TransactionTemplate transactionTemplate,
+                              ItemProcessingProperties properties,
+                              ItemCache itemCache,
+                              ItemChangeLog changeLog,
+                              ItemLeaseManager leaseManager,
+                              RetryPolicy retryPolicy,
+                              @Qualifier(ItemExecutorConfiguration.ITEM_PROCESSING_EXECUTOR) Executor chunkExecutor,
+                              MeterRegistry registry) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.itemCache = itemCache;
+        this.changeLog = changeLog;
+        this.leaseManager = leaseManager;
+        this.retryPolicy = retryPolicy;
+        this.chunkExecutor = chunkExecutor;
+        this.chunkTimer = Timer.builder("item.processing.chunk.duration")
+                .description("Time to update and commit one chunk in batch mode")
+                .register(registry);
+        this.itemsProcessed = ItemProcessingMetrics.items(registry, "batch", ItemProcessingMetrics.PROCESSED);
+        this.itemsFailed = ItemProcessingMetrics.items(registry, "batch", ItemProcessingMetrics.FAILED);
+    }
+
+    /**
+     * Returns the next chunk of ids strictly greater than {@code afterId} selected by {@code mode}, in ascending order.
+     */
+    public List<Long> nextChunk(ProcessingMode mode, long afterId) {
+        Limit limit = Limit.of(properties.getChunkSize());
+        return mode == ProcessingMode.INCREMENTAL
+                ? itemRepository.findUnprocessedIdsAfter(afterId, limit)
+                : itemRepository.findIdsAfter(afterId, limit);
+    }
+
+    /**
+     * Marks the given items as processed and returns them, all within a single transaction.
+     */
+    public List<Item> processChunk(List<Long> ids) {
+        return processChunk(ids, (chunk, items) -> {
+        });
+    }
+
+    /**
+     * Same as {@link #processChunk(List)}, additionally running {@code inTransaction} before the commit,
+     * so callers can persist their own bookkeeping atomically with the chunk.
+     */
+    public List<Item> processChunk(List<Long> ids, BiConsumer<List<Long>, List<Item>> inTransaction) {
+        return processChunk(ids, null, inTransaction);
+    }
+
+    /**
+     * Same as {@link #processChunk(List, BiConsumer)}; with a non-null {@code owner} only the items still leased to
+     * it are processed, the others have been taken over by another node after the lease expired.
+     */
+    private List<Item> processChunk(List<Long> ids, String owner, BiConsumer<List<Long>, List<Item>> inTransaction) {
+        List<Item> processed = chunkTimer.record(() -> transactionTemplate.execute(status -> {
+            // the row locks keep the leases from being taken over until the chunk commits
+            List<Long> owned = owner == null ? ids : itemRepository.lockLeasedIds(ids, owner);
+            // update first: the clearing bulk statement guarantees the SELECT below sees the new status
+            itemRepository.markProcessed(owned, Instant.now());
+            List<Item> items = itemRepository.findAllById(owned);
+            changeLog.recordAll(ItemChangeType.PROCESSED, items);
+            inTransaction.accept(ids, items);
+            return items;
+        }));
+        // the bulk statement bypasses the cache; evict after commit so no reader can re-cache the old state
+        itemCache.evictAll(ids);
+        itemsProcessed.increment(processed.size());
+        return processed;
+    }
+
+    /**
+     * Processes every item chunk by chunk, running up to {@code parallelism} chunks at the same time.
+     * Blocks until all chunks are committed; the first failing chunk stops the walk and is rethrown.
+     *
+     * @param listener receives the items of each committed chunk; called concurrently, so it must be thread-safe
+     */
+    public ProcessingSummary processAll(Consumer<List<Item>> listener) {
+        return processAll(ProcessingMode.FULL, listener);
+    }
+
+    /**
+     * Same as {@link #processAll(Consumer)}, restricted to the items selected by {@code mode}.
+     * With {@code item.cluster.enabled} the chunks are claimed through the {@link ItemLeaseManager},
+     * so that instances sharing the database split the items between them.
+     */
+    public ProcessingSummary processAll(ProcessingMode mode, Consumer<List<Item>> listener) {
+        ChunkListener chunkListener = new ChunkListener() {
+            @Override
+            public void afterCommit(List<Item> items) {
+                listener.accept(items);
+            }
+        };
+        if (leaseManager.isEnabled()) {
+            try (ItemLeaseManager.Claim claim = leaseManager.open(mode)) {
+                return processAll(claim, chunkListener);
+            }
+        }
+        return processAll(mode, 0L, chunkListener);
+    }
+
+    /**
+     * Processes the chunks handed out by {@code claim}, see {@link #processAll(long, ChunkListener)}.
+     * Only the items still leased to the claim are updated; the caller opens and closes the claim.
+     */
+    public ProcessingSummary processAll(ItemLeaseManager.Claim claim, ChunkListener listener) {
+        // chunks come from the claim instead of the id walk, so other nodes get the rest
+        return processAll(0L, lastId -> claim.next(properties.getChunkSize()), claim.owner(), listener);
+    }
+
+    /**
+     * Processes every item with an id greater than {@code afterId}, see {@link #processAll(Consumer)}.
+     * The {@link ChunkListener} can veto chunks before dispatch and hook into each chunk transaction.
+     */
+    public ProcessingSummary processAll(long afterId, ChunkListener listener) {
+        return processAll(ProcessingMode.FULL, afterId, listener);
+    }
+
+    /**
+     * Processes the items selected by {@code mode} with an id greater than {@code afterId},
+     * see {@link #processAll(long, ChunkListener)}.
+     */
+    public ProcessingSummary processAll(ProcessingMode mode, long afterId, ChunkListener listener) {
+        return processAll(afterId, lastId -> nextChunk(mode, lastId), null, listener);
+    }
+
+    private ProcessingSummary processAll(long afterId, ChunkSource source, String owner, ChunkListener listener) {
+        long start = System.nanoTime();
+        int parallelism = properties.getParallelism();
+        Semaphore permits = new Semaphore(parallelism);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong processed = new AtomicLong();
+        AtomicInteger chunks = new AtomicInteger();
+
+        try {
+            List<Long> ids;
+            while (failure.get() == null && !(ids = source.next(afterId)).isEmpty()) {
+                if (!listener.beforeChunk(ids)) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+                permits.acquire();
+                List<Long> chunk = ids;
+                try {
+                    chunkExecutor.execute(() -> {
+                        try {
+                            // claimed chunks contend for rows with the claims of other nodes, so deadlocks are retried
+                            List<Item> items = owner == null
+                                    ? processChunk(chunk, null, listener::inTransaction)
+                                    : retryPolicy.execute(() -> processChunk(chunk, owner, listener::inTransaction));
+                            processed.addAndGet(items.size());
+                            chunks.incrementAndGet();
+                            listener.afterCommit(items);
+                        } catch (Throwable t) {
+                            // the chunk rolled back as a whole
+                            itemsFailed.increment(chunk.size());
+                            failure.compareAndSet(null, t);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+            // wait for the chunks still in flight
+            permits.acquire(parallelism);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+
+        if (failure.get() != null) {
+            throw new CompletionException(failure.get());
+        }
+        return new ProcessingSummary(processed.get(), chunks.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Supplies the chunks of one walk.
+     */
+    @FunctionalInterface
+    private interface ChunkSource {
+
+        /**
+         * Returns the next chunk after {@code lastId}, the last id of the previous chunk; empty when the walk is done.
+         */
+        List<Long> next(long lastId) throws InterruptedException;
+    }
+
+    /**
+     * Callbacks invoked around every chunk of {@link #processAll(long, ChunkListener)}.
+     * Apart from {@link #beforeChunk(List)}, the callbacks run concurrently on the chunk workers.
+     */
+    public interface ChunkListener {
+
+        /**
+         * Called on the walking thread before a chunk is dispatched; returning {@code false} stops the walk.
+         */
+        default boolean beforeChunk(List<Long> ids) {
+            return true;
+        }
+
+        /**
+         * Called inside the chunk transaction, after the items have been updated.
+         */
+        default void inTransaction(List<Long> ids, List<Item> items) {
+        }
+
+        /**
+         * Called once the chunk has been committed.
+         */
+        default void afterCommit(List<Item> items) {
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.siemens.internship;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch write: overall counts plus one entry per submitted element, in submission order.
+ */
+public record ItemBatchResult(int succeeded, int failed, List<Element> results) {
+
+    public static ItemBatchResult of(List<Element> results) {
+        int failed = (int) results.stream().filter(element -> element.error() != null).count();
+        return new ItemBatchResult(results.size() - failed, failed, results);
+    }
+
+    /**
+     * Result of a single element; {@code status} uses the HTTP code the equivalent single-item call would return.
+     * An element that failed validation also lists the violated constraints in {@code fieldErrors}.
+     */
+    public record Element(int index, Long id, int status, String error,
+                          @JsonInclude(JsonInclude.Include.NON_EMPTY) List<ItemValidator.FieldError> fieldErrors) {
+
+        public Element(int index, Long id, int status, String error) {
+            this(index, id, status, error, null);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.siemens.internship;
+
+import com.siemens.internship.change.ItemChangeLog;
+import com.siemens.internship.change.ItemChangeType;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk create, update and delete.
+ * Elements are validated with the {@link ItemValidator}, array bodies in one pass and streamed elements one by one
+ * as they arrive, then written in chunks of {@code item.processing.chunk-size}, each chunk in its own transaction.
+ * Within a chunk Hibernate groups the statements into JDBC batches and ids come from the pooled sequence,
+ * so a chunk costs a handful of round trips instead of one per item.
+ * Elements are fed through a {@link Session}, which allows streaming request bodies without buffering them.
+ */
+@Service
+public class ItemBulkService {
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemValidator validator;
+    private final ItemCache itemCache;
+    private final ItemChangeLog changeLog;
+    private final int chunkSize;
+
+    public ItemBulkService(ItemRepository itemRepository,
+                           TransactionTemplate transactionTemplate,
+                           ItemValidator validator,
+                           ItemCache itemCache,
+                           ItemChangeLog changeLog,
+                           ItemProcessingProperties properties) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.itemCache = itemCache;
+        this.changeLog = changeLog;
+        this.chunkSize = properties.getChunkSize();
+    }
+
+    public Session<Item> createSession() {
+        return new Session<>(item -> item == null ? "item is required" : null, validator::validate, this::createChunk);
+    }
+
+    public Session<Item> updateSession() {
+        return new Session<>(item -> item == null ? "item is required" : item.getId() == null ? "id is required" : null,
+                validator::validate, this::updateChunk);
+    }
+
+    public Session<Long> deleteSession() {
+        return new Session<>(id -> id == null ? "id is required" : null, id -> 0, this::deleteChunk);
+    }
+
+    public ItemBatchResult createAll(List<Item> items) {
+        return createSession().addAll(items, validator.validateAll(items)).finish();
+    }
+
+    public ItemBatchResult updateAll(List<Item> items) {
+        return updateSession().addAll(items, validator.validateAll(items)).finish();
+    }
+
+    public ItemBatchResult deleteAll(List<Long> ids) {
+        return deleteSession().addAll(ids).finish();
+    }
+
+    private List<ItemBatchResult.Element> createChunk(List<Integer> indexes, List<Item> items) {
+        // ids are always generated, a client supplied id would turn the insert into a merge
+        Instant now = Instant.now();
+        items.forEach(item -> {
+            item.setId(null);
+            item.setVersion(null);
+            item.markModified(now);
+        });
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    changeLog.recordAll(ItemChangeType.CREATED, itemRepository.saveAll(items)));
+        } catch (RuntimeException e) {
+            // the ids handed out before the rollback were never committed
+            items.forEach(item -> item.setId(null));
+            throw e;
+        }
+
+        List<ItemBatchResult.Element> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            results.add(new ItemBatchResult.Element(indexes.get(i), items.get(i).getId(), HttpStatus.CREATED.value(), null));
+        }
+        return results;
+    }
+
+    private List<ItemBatchResult.Element> updateChunk(List<Integer> indexes, List<Item> items) {
+        Set<Long> missing = new HashSet<>();
+        Set<Long> conflicts = new HashSet<>();
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Item> updated = new ArrayList<>(items.size());
+            Map<Long, Item> existing = itemRepository.findAllById(items.stream().map(Item::getId).toList()).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            for (Item item : items) {
+                Item managed = existing.get(item.getId());
+                if (managed == null) {
+                    missing.add(item.getId());
+                    continue;
+                }
+                if (item.getVersion() != null && !item.getVersion().equals(managed.getVersion())) {
+                    conflicts.add(item.getId());
+                    continue;
+                }
+                // dirty checking turns these into batched UPDATEs at commit
+                managed.setName(item.getName());
+                managed.setDescription(item.getDescription());
+                managed.setStatus(item.getStatus());
+                managed.setEmail(item.getEmail());
+                managed.markModified(now);
+                updated.add(managed);
+            }
+            // flush the batched UPDATEs first, so the change records carry the new versions
+            itemRepository.flush();
+            changeLog.recordAll(ItemChangeType.UPDATED, updated);
+        });
+        itemCache.evictAll(items.stream().map(Item::getId).toList());
+
+        List<ItemBatchResult.Element> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Long id = items.get(i).getId();
+            if (missing.contains(id)) {
+                results.add(notFound(indexes.get(i), id));
+            } else if (conflicts.contains(id)) {
+                results.add(new ItemBatchResult.Element(indexes.get(i), id, HttpStatus.CONFLICT.value(),
+                        "Item " + id + " was modified concurrently, expected version " + items.get(i).getVersion()));
+            } else {
+                results.add(new ItemBatchResult.Element(indexes.get(i), id, HttpStatus.OK.value(), null));
+            }
+        }
+        return results;
+    }
+
+    private List<ItemBatchResult.Element> deleteChunk(List<Integer> indexes, List<Long> ids) {
+        Set<Long> deleted = new HashSet<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            deleted.addAll(itemRepository.findExistingIds(ids));
+            if (!deleted.isEmpty()) {
+                itemRepository.deleteAllByIdInBatch(deleted);
+                changeLog.recordDeleted(deleted);
+            }
+        });
+        itemCache.evictAll(ids);
+
+        List<ItemBatchResult.Element> results = new ArrayList<>(ids.size());
+        Set<Long> reported = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            // a repeated id is only deleted once
+            results.add(deleted.contains(id) && reported.add(id)
+                    ? new ItemBatchResult.Element(indexes.get(i), id, HttpStatus.NO_CONTENT.value(), null)
+                    : notFound(indexes.get(i), id));
+        }
+        return results;
+    }
+
+    private static ItemBatchResult.Element notFound(int index, Long id) {
+        return new ItemBatchResult.Element(index, id, HttpStatus.NOT_FOUND.value(), "Item not found with id: " + id);
+    }
+
+    /**
+     * Writes one chunk of valid elements and returns their results.
+     */
+    @FunctionalInterface
+    interface ChunkWriter<T> {
+        List<ItemBatchResult.Element> write(List<Integer> indexes, List<T> values);
+    }
+
+    /**
+     * Accumulates the elements of one batch request and writes them whenever a chunk is full.
+     * Not thread-safe; meant to be fed by the request thread.
+     */
+    public class Session<T> {
+
+        private final Function<T, String> required;
+        private final ToIntFunction<T> constraints;
+        private final ChunkWriter<T> writer;
+        private final List<ItemBatchResult.Element> results = new ArrayList<>();
+        private final List<Integer> pendingIndexes = new ArrayList<>();
+        private final List<T> pending = new ArrayList<>();
+        private int index;
+
+        /**
+         * @param required    returns the error of an element that cannot be written at all, e.g. a missing id
+         * @param constraints returns the violated constraints of an element, see {@link ItemValidator#validate(Item)}
+         */
+        Session(Function<T, String> required, ToIntFunction<T> constraints, ChunkWriter<T> writer) {
+            this.required = required;
+            this.constraints = constraints;
+            this.writer = writer;
+        }
+
+        public Session<T> add(T value) {
+            int position = index++;
+            String error = required.apply(value);
+            if (error != null) {
+                results.add(new ItemBatchResult.Element(position, idOf(value), HttpStatus.BAD_REQUEST.value(), error));
+                return this;
+            }
+            // valid elements, the common case, cost no allocation
+            int violations = constraints.applyAsInt(value);
+            if (violations != 0) {
+                invalid(position, value, ItemValidator.fieldErrors(position, violations));
+                return this;
+            }
+            accept(position, value);
+            return this;
+        }
+
+        public Session<T> addAll(List<T> values) {
+            values.forEach(this::add);
+            return this;
+        }
+
+        /**
+         * Adds the elements of a fresh session whose constraints were already checked in one pass,
+         * {@code fieldErrors} being the result of {@link ItemValidator#validateAll(List)} for {@code values}.
+         */
+        private Session<T> addAll(List<T> values, List<ItemValidator.FieldError> fieldErrors) {
+            int next = 0;
+            for (T value : values) {
+                int position = index++;
+                int end = next;
+                while (end < fieldErrors.size() && fieldErrors.get(end).index() == position) {
+                    end++;
+                }
+                String error = required.apply(value);
+                if (error != null) {
+                    results.add(new ItemBatchResult.Element(position, idOf(value), HttpStatus.BAD_REQUEST.value(), error));
+                } else if (end > next) {
+                    invalid(position, value, fieldErrors.subList(next, end));
+                } else {
+                    accept(position, value);
+                }
+                next = end;
+            }
+            return this;
+        }
+
+        /**
+         * Records an element that could not even be read, e.g. a malformed NDJSON line.
+         */
+        public Session<T> reject(String error) {
+            results.add(new ItemBatchResult.Element(index++, null, HttpStatus.BAD_REQUEST.value(), error));
+            return this;
+        }
+
+        public ItemBatchResult finish() {
+            flush();
+            results.sort(Comparator.comparingInt(ItemBatchResult.Element::index));
+            return ItemBatchResult.of(results);
+        }
+
+        private void invalid(int position, T value, List<ItemValidator.FieldError> fieldErrors) {
+            results.add(new ItemBatchResult.Element(position, idOf(value), HttpStatus.BAD_REQUEST.value(),
+                    ItemValidator.describe(fieldErrors), fieldErrors));
+        }
+
+        private void accept(int position, T value) {
+            pendingIndexes.add(position);
+            pending.add(value);
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                results.addAll(writer.write(pendingIndexes, pending));
+            } catch (DataAccessException | TransactionException e) {
+                // the chunk was rolled back as a whole, earlier chunks stay committed
+                int status = e instanceof DataIntegrityViolationException || e instanceof OptimisticLockingFailureException
+                        ? HttpStatus.CONFLICT.value()
+                        : HttpStatus.INTERNAL_SERVER_ERROR.value();
+                String error = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                for (int i = 0; i < pending.size(); i++) {
+                    results.add(new ItemBatchResult.Element(pendingIndexes.get(i), idOf(pending.get(i)), status, error));
+                }
+            }
+            pendingIndexes.clear();
+            pending.clear();
+        }
+
+        private Long idOf(T value) {
+            if (value instanceof Item item) {
+                return item.getId();
+            }
+            return value instanceof Long id ? id : null;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.siemens.internship;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Programmatic access to the items cache for the write paths that bypass the cache annotations,
+ * such as the bulk status updates, and for its statistics.
+ */
+@Component
+public class ItemCache {
+
+    private final Cache cache;
+
+    public ItemCache(CacheManager cacheManager) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(ItemCacheConfiguration.ITEMS_CACHE),
+                "Cache '" + ItemCacheConfiguration.ITEMS_CACHE + "' is not configured");
+    }
+
+    public void evict(Long id) {
+        cache.evict(id);
+    }
+
+    public void evictAll(Collection<Long> ids) {
+        ids.forEach(cache::evict);
+    }
+
+    /**
+     * Hit/miss/eviction counters, or all zeros if the cache does not record statistics.
+     */
+    public CacheStatsSnapshot stats() {
+        if (cache instanceof CaffeineCache caffeineCache) {
+            CacheStats stats = caffeineCache.getNativeCache().stats();
+            return new CacheStatsSnapshot(stats.hitCount(), stats.missCount(), stats.hitRate(),
+                    stats.evictionCount(), caffeineCache.getNativeCache().estimatedSize());
+        }
+        return new CacheStatsSnapshot(0, 0, 0, 0, 0);
+    }
+
+    /**
+     * @param hitCount      lookups served from the cache
+     * @param missCount     lookups that went to the database
+     * @param hitRate       ratio of hits to all lookups
+     * @param evictionCount entries removed because of the size or TTL limits
+     * @param size          approximate number of cached items
+     */
+    public record CacheStatsSnapshot(long hitCount, long missCount, double hitRate, long evictionCount, long size) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.siemens.internship;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the read-through cache of items by id. Size and TTL come from {@code spring.cache.caffeine.spec}.
+ */
+@Configuration
+@EnableCaching
+public class ItemCacheConfiguration {
+
+    public static final String ITEMS_CACHE = "items";
+}
@@ -0,0 +1,58 @@
+package com.siemens.internship;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary alternatives to JSON, negotiated through {@code Accept} and {@code Content-Type}: Smile and CBOR encode
+ * the same Jackson model without text formatting of numbers and without repeating field names as text,
+ * which makes large item lists cheaper to write and smaller on the wire. JSON stays the default.
+ */
+@Configuration
+public class ItemContentConfiguration implements WebMvcConfigurer {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    private final ObjectMapper objectMapper;
+
+    public ItemContentConfiguration(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns a mapper writing {@code mediaType}, configured like the application's JSON mapper.
+     * Falls back to JSON for any other media type.
+     */
+    public static ObjectMapper mapperFor(ObjectMapper jsonMapper, MediaType mediaType) {
+        if (APPLICATION_SMILE.isCompatibleWith(mediaType)) {
+            return jsonMapper.copyWith(new SmileFactory());
+        }
+        if (MediaType.APPLICATION_CBOR.isCompatibleWith(mediaType)) {
+            return jsonMapper.copyWith(new CBORFactory());
+        }
+        return jsonMapper;
+    }
+
+    /**
+     * Spring registers Smile and CBOR converters on its own once the formats are on the classpath, but with
+     * mappers of its own; these are replaced, so that all formats share the modules and features of the JSON mapper.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        // after JSON, which therefore still answers requests accepting anything
+        converters.add(new MappingJackson2SmileHttpMessageConverter(mapperFor(objectMapper, APPLICATION_SMILE)));
+        converters.add(new MappingJackson2CborHttpMessageConverter(mapperFor(objectMapper, MediaType.APPLICATION_CBOR)));
+    }
+}
@@ -1,12 +1,29 @@
 package com.siemens.internship;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.siemens.internship.exception.ItemNotFoundException;
+import com.siemens.internship.exception.ItemPreconditionFailedException;
 import com.siemens.internship.exception.ItemValidationException;
+import com.siemens.internship.exception.ItemVersionConflictException;
+import com.siemens.internship.pipeline.PipelineSummary;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -16,56 +33,306 @@ import java.util.stream.Collectors;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemBulkService bulkService;
+    private final ObjectMapper objectMapper;
 
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ItemBulkService bulkService, ObjectMapper objectMapper) {
         this.itemService = itemService;
+        this.bulkService = bulkService;
+        this.objectMapper = objectMapper;
     }
 
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final String NEXT_AFTER_HEADER = "X-Next-After";
+    static final String ITEMS_FAILED_HEADER = "X-Items-Failed";
+
+    /**
+     * Without paging or filter parameters the whole table is returned, as before.
+     * With {@code after} and/or {@code limit} the items are served by keyset pagination;
+     * when more rows may follow, the id to pass as the next {@code after} is sent in the {@code X-Next-After} header.
+     * With {@code status}, {@code email} (exact) and/or {@code name} (substring) the matching items are returned
+     * as {@link ItemSummary} projections, paginated the same way.
+     */
     @GetMapping
-    public ResponseEntity<List<Item>> getAllItems() {
-        return new ResponseEntity<>(itemService.findAll(), HttpStatus.OK);
+    public ResponseEntity<List<?>> getAllItems(@RequestParam(required = false) Long after,
+                                               @RequestParam(required = false) Integer limit,
+                                               @RequestParam(required = false) String status,
+                                               @RequestParam(required = false) String email,
+                                               @RequestParam(required = false) String name) {
+        ItemFilter filter = new ItemFilter(status, email, name);
+        if (after == null && limit == null && filter.isEmpty()) {
+            return new ResponseEntity<>(itemService.findAll(), HttpStatus.OK);
+        }
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ItemValidationException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        long afterId = after == null ? 0L : after;
+        if (filter.isEmpty()) {
+            List<Item> page = itemService.findPage(afterId, pageSize);
+            return pageResponse(page, pageSize, page.isEmpty() ? null : page.get(page.size() - 1).getId());
+        }
+        List<ItemSummary> page = itemService.search(filter, afterId, pageSize);
+        return pageResponse(page, pageSize, page.isEmpty() ? null : page.get(page.size() - 1).id());
+    }
+
+    private static ResponseEntity<List<?>> pageResponse(List<?> page, int pageSize, Long lastId) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header(NEXT_AFTER_HEADER, String.valueOf(lastId));
+        }
+        return response.body(page);
+    }
+
+    /**
+     * Unpaginated export: rows are streamed from the database straight into the response as one array,
+     * so neither the result set nor the serialized response is ever held in memory.
+     * The format is negotiated by the registered converters, so {@code Accept: application/x-jackson-smile}
+     * or {@code application/cbor} writes the array in that format; JSON stays the default.
+     */
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_JSON_VALUE,
+            ItemContentConfiguration.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<ItemExport> exportItems() {
+        return ResponseEntity.ok(new ItemExport(itemService));
     }
 
+    /**
+     * The item version is exposed as a strong ETag. A matching {@code If-None-Match} is answered with
+     * 304 by Spring before the body is serialized, and the lookup itself is served from the cache.
+     */
     @GetMapping("/{id}")
     public ResponseEntity<Item> getItemById(@PathVariable Long id) {
         Item item = itemService.findById(id);
-        return ResponseEntity.ok(item);
+        return withETag(ResponseEntity.ok(), item).body(item);
     }
 
     @PostMapping
-    public ResponseEntity<Item> createItem(@Valid @RequestBody Item item, BindingResult result) {
+    public CompletableFuture<ResponseEntity<Item>> createItem(@Valid @RequestBody Item item, BindingResult result) {
         if (result.hasErrors()) {
-            throw new ItemValidationException(
-                    result.getAllErrors().stream()
-                            .map(Object::toString)
-                            .collect(Collectors.joining(", "))
-            );
+            // same rendering as the batch endpoints, e.g. "email: Email must be valid, name: must not be empty"
+            throw new ItemValidationException(result.getFieldErrors().stream()
+                    .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
         }
 
-        Item savedItem = itemService.save(item);
-        return new ResponseEntity<>(savedItem, HttpStatus.CREATED);
+        // with write-behind enabled the request is answered once the item's group commit is durable
+        return itemService.create(item)
+                .thenApply(savedItem -> withETag(ResponseEntity.status(HttpStatus.CREATED), savedItem).body(savedItem));
     }
 
+    /**
+     * Single-statement update; a 404 comes from the statement matching no row.
+     * With {@code If-Match} the update only applies to that version and fails with 412 otherwise;
+     * without it, a {@code version} in the body has the same effect but fails with 409.
+     * {@code If-Match: *} applies to any version, but fails with 412 when the item does not exist.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Item> updateItem(@PathVariable Long id, @Valid @RequestBody Item item) {
-        itemService.findById(id);
-        item.setId(id);
-        Item updatedItem = itemService.save(item);
-        return ResponseEntity.ok(updatedItem);
+    public ResponseEntity<Item> updateItem(@PathVariable Long id,
+                                           @Valid @RequestBody Item item,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            item.setVersion(parseIfMatch(ifMatch));
+        }
+        try {
+            Item updatedItem = itemService.update(id, item);
+            return withETag(ResponseEntity.ok(), updatedItem).body(updatedItem);
+        } catch (ItemVersionConflictException e) {
+            throw ifMatch == null ? e : new ItemPreconditionFailedException(e.getMessage());
+        } catch (ItemNotFoundException e) {
+            throw matchesAny(ifMatch) ? new ItemPreconditionFailedException(e.getMessage()) : e;
+        }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
-        itemService.findById(id); // throw exception if Item does not exist
-        itemService.deleteById(id);
+    public ResponseEntity<Void> deleteItem(@PathVariable Long id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null) {
+            itemService.deleteById(id); // throws ItemNotFoundException if nothing was deleted
+            return ResponseEntity.noContent().build();
+        }
+        try {
+            itemService.delete(id, parseIfMatch(ifMatch));
+        } catch (ItemVersionConflictException e) {
+            throw new ItemPreconditionFailedException(e.getMessage());
+        } catch (ItemNotFoundException e) {
+            throw matchesAny(ifMatch) ? new ItemPreconditionFailedException(e.getMessage()) : e;
+        }
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Whether {@code ifMatch} is {@code *}, which matches any current version but not a missing item
+     * (RFC 9110, section 13.1.1).
+     */
+    private static boolean matchesAny(String ifMatch) {
+        return ifMatch != null && "*".equals(ifMatch.trim());
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder response, Item item) {
+        return item.getVersion() == null ? response : response.eTag(String.valueOf(item.getVersion()));
+    }
+
+    /**
+     * Turns an {@code If-Match} value into the expected version; {@code *} means any version.
+     * Only a single strong ETag can be checked in one statement. Weak or foreign ETags never match
+     * under the strong comparison If-Match requires, so they fail the precondition.
+     */
+    private static Long parseIfMatch(String ifMatch) {
+        if (matchesAny(ifMatch)) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.contains(",")) {
+            throw new ItemValidationException("If-Match must contain a single ETag");
+        }
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.valueOf(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException e) {
+                // not one of our ETags
+            }
+        }
+        throw new ItemPreconditionFailedException("If-Match " + value + " does not match the current ETag");
+    }
+
+    /**
+     * Batch endpoints: every element is validated and reported on its own, see {@link ItemBatchResult}.
+     * Bodies are either JSON arrays or NDJSON streams (one element per line), the latter being written
+     * chunk by chunk while the request is still being read. Arrays may also be sent as Smile or CBOR.
+     * The response is 200 when every element succeeded and 207 (Multi-Status) otherwise.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE,
+            ItemContentConfiguration.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<ItemBatchResult> createItems(@RequestBody List<Item> items) {
+        return batchResponse(bulkService.createAll(items));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ItemBatchResult> createItemsStreaming(InputStream body) throws IOException {
+        return batchResponse(readNdjson(body, Item.class, bulkService.createSession()));
+    }
+
+    @PutMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE,
+            ItemContentConfiguration.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<ItemBatchResult> updateItems(@RequestBody List<Item> items) {
+        return batchResponse(bulkService.updateAll(items));
+    }
+
+    @PutMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ItemBatchResult> updateItemsStreaming(InputStream body) throws IOException {
+        return batchResponse(readNdjson(body, Item.class, bulkService.updateSession()));
+    }
+
+    @DeleteMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE,
+            ItemContentConfiguration.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<ItemBatchResult> deleteItems(@RequestBody List<Long> ids) {
+        return batchResponse(bulkService.deleteAll(ids));
+    }
+
+    @DeleteMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ItemBatchResult> deleteItemsStreaming(InputStream body) throws IOException {
+        return batchResponse(readNdjson(body, Long.class, bulkService.deleteSession()));
+    }
+
+    private <T> ItemBatchResult readNdjson(InputStream body, Class<T> type, ItemBulkService.Session<T> session)
+            throws IOException {
+        ObjectReader reader = objectMapper.readerFor(type);
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                session.add(reader.readValue(line));
+            } catch (JsonProcessingException e) {
+                session.reject("Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return session.finish();
+    }
+
+    private static ResponseEntity<ItemBatchResult> batchResponse(ItemBatchResult result) {
+        return ResponseEntity.status(result.failed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS).body(result);
+    }
+
+    /**
+     * The processing endpoints take {@code mode=INCREMENTAL} to pick up only the items never processed
+     * or modified since their last processing, see {@link ProcessingMode}.
+     */
     @GetMapping("/process")
-    public CompletableFuture<ResponseEntity<List<Item>>> processItems() {
+    public CompletableFuture<ResponseEntity<List<Item>>> processItems(
+            @RequestParam(defaultValue = "FULL") ProcessingMode mode) {
         // CompletableFuture should be returned to leverage Spring Async capabilities
-        return itemService.processItemsAsync()
-                .thenApply(items -> new ResponseEntity<>(items, HttpStatus.OK));
+        return itemService.processItemsAsync(mode)
+                .thenApply(ItemController::processingResponse);
+    }
+
+    /**
+     * The body lists the processed items. Items given up on are counted in {@code X-Items-Failed} and turn
+     * the status into 207; their reasons are listed under {@code /api/items/dead-letters}.
+     */
+    private static ResponseEntity<List<Item>> processingResponse(ItemProcessingResult result) {
+        return ResponseEntity.status(result.failed().isEmpty() ? HttpStatus.OK : HttpStatus.MULTI_STATUS)
+                .header(ITEMS_FAILED_HEADER, String.valueOf(result.failed().size()))
+                .body(result.processed());
+    }
+
+    @GetMapping("/process/batch")
+    public CompletableFuture<ResponseEntity<ProcessingSummary>> processItemsInBatches(
+            @RequestParam(defaultValue = "FULL") ProcessingMode mode) {
+        return itemService.processItemsInBatches(mode)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("/process/pipeline")
+    public CompletableFuture<ResponseEntity<PipelineSummary>> processItemsInPipeline(
+            @RequestParam(defaultValue = "FULL") ProcessingMode mode) {
+        return itemService.processItemsInPipeline(mode)
+                .thenApply(summary -> ResponseEntity.status(summary.failed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS)
+                        .header(ITEMS_FAILED_HEADER, String.valueOf(summary.failed()))
+                        .body(summary));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ItemCache.CacheStatsSnapshot> getCacheStats() {
+        return ResponseEntity.ok(itemService.cacheStats());
+    }
+
+    @GetMapping("/process/limiter")
+    public ResponseEntity<LimiterSnapshot> getProcessingLimiter() {
+        return ResponseEntity.ok(itemService.limiterSnapshot());
+    }
+
+    /**
+     * Streams processed items as NDJSON (one JSON object per line), flushing after every committed chunk.
+     * The first results reach the client as soon as the first chunk is done and nothing is accumulated on the heap.
+     */
+    @GetMapping(value = "/process/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> processItemsStreaming(
+            @RequestParam(defaultValue = "FULL") ProcessingMode mode) {
+        ObjectWriter writer = objectMapper.writerFor(Item.class);
+        StreamingResponseBody body = out -> itemService.processItems(mode, items -> {
+            // chunks complete on several worker threads, lines must not interleave
+            synchronized (out) {
+                try {
+                    for (Item item : items) {
+                        out.write(writer.writeValueAsBytes(item));
+                        out.write('\n');
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
 }
@@ -0,0 +1,114 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the executor used for item processing according to {@code item.processing.executor}.
+ * Every variant is shut down gracefully with the application context.
+ */
+@Configuration
+public class ItemExecutorConfiguration {
+
+    public static final String ITEM_PROCESSING_EXECUTOR = "itemProcessingExecutor";
+
+    private static final String THREAD_NAME_PREFIX = "item-processing-";
+
+    /**
+     * Pool metrics (active threads, queue depth, completed tasks) are published as {@code executor.*} meters
+     * tagged {@code name=itemProcessingExecutor}: bound here for the platform pool and by Spring Boot for the
+     * {@code SPRING} variant. Rejected submissions are counted as {@code item.processing.executor.rejected}.
+     */
+    @Bean(ITEM_PROCESSING_EXECUTOR)
+    public Executor itemProcessingExecutor(ItemProcessingProperties properties, MeterRegistry registry) {
+        Counter rejected = Counter.builder("item.processing.executor.rejected")
+                .description("Tasks rejected by the item processing executor")
+                .register(registry);
+        RejectedExecutionHandler countingAbortPolicy = (task, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("Task rejected by " + ITEM_PROCESSING_EXECUTOR);
+        };
+
+        return switch (properties.getExecutor()) {
+            case PLATFORM -> {
+                ThreadPoolExecutor pool = new ThreadPoolExecutor(properties.getPoolSize(), properties.getPoolSize(),
+                        0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                        new CustomizableThreadFactory(THREAD_NAME_PREFIX), countingAbortPolicy);
+                new ExecutorServiceMetrics(pool, ITEM_PROCESSING_EXECUTOR, Tags.empty()).bindTo(registry);
+                yield new GracefulExecutor(pool, properties);
+            }
+            case VIRTUAL -> new GracefulExecutor(newVirtualThreadPerTaskExecutor(), properties);
+            case SPRING -> {
+                ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+                executor.setCorePoolSize(properties.getPoolSize());
+                executor.setMaxPoolSize(properties.getPoolSize());
+                executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+                executor.setRejectedExecutionHandler(countingAbortPolicy);
+                executor.setWaitForTasksToCompleteOnShutdown(true);
+                executor.setAwaitTerminationMillis(properties.getShutdownTimeout().toMillis());
+                yield executor;
+            }
+        };
+    }
+
+    /**
+     * Looked up reflectively so the project still compiles and runs on Java 17 when virtual threads are not used.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                    .invoke();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("item.processing.executor=VIRTUAL requires Java 21 or newer", e);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Could not create virtual thread executor", t);
+        }
+    }
+
+    /**
+     * Wraps a plain {@link ExecutorService} so that the context waits for running tasks on shutdown
+     * and only interrupts them after the configured timeout.
+     */
+    static class GracefulExecutor implements Executor, DisposableBean {
+
+        private final ExecutorService delegate;
+        private final ItemProcessingProperties properties;
+
+        GracefulExecutor(ExecutorService delegate, ItemProcessingProperties properties) {
+            this.delegate = delegate;
+            this.properties = properties;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(command);
+        }
+
+        @Override
+        public void destroy() throws InterruptedException {
+            delegate.shutdown();
+            if (!delegate.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                delegate.shutdownNow();
+            }
+        }
+    }
+}
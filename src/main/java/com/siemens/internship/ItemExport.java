@@ -0,0 +1,47 @@
+package com.siemens.internship;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * All items as one array, written row by row while they are read from the database. Being a plain Jackson value,
+ * it is written by whichever message converter was negotiated, in that converter's format.
+ */
+public class ItemExport extends JsonSerializable.Base {
+
+    private final ItemService itemService;
+
+    public ItemExport(ItemService itemService) {
+        this.itemService = itemService;
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+        JsonSerializer<Object> serializer = provider.findTypedValueSerializer(Item.class, true, null);
+        generator.writeStartArray();
+        try {
+            itemService.streamAll(item -> {
+                try {
+                    serializer.serialize(item, generator, provider);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSerializer)
+            throws IOException {
+        serialize(generator, provider);
+    }
+}
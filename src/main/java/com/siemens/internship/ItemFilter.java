@@ -0,0 +1,15 @@
+package com.siemens.internship;
+
+/**
+ * Optional criteria for item searches; {@code null} fields don't restrict the result.
+ *
+ * @param status       exact status
+ * @param email        exact email
+ * @param nameContains substring of the name; not served by an index
+ */
+public record ItemFilter(String status, String email, String nameContains) {
+
+    public boolean isEmpty() {
+        return status == null && email == null && nameContains == null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Meters shared by the processing modes, so that every mode reports under the same names and tags.
+ */
+final class ItemProcessingMetrics {
+
+    static final String PROCESSED = "processed";
+    static final String FAILED = "failed";
+
+    private ItemProcessingMetrics() {
+    }
+
+    /**
+     * Counter of the items a processing {@code mode} ended with {@code outcome}.
+     */
+    static Counter items(MeterRegistry registry, String mode, String outcome) {
+        return Counter.builder("item.processing.items")
+                .description("Items handled by the processing pipeline")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,147 @@
+package com.siemens.internship;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Tuning knobs for item processing, bound from the {@code item.processing.*} properties.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "item.processing")
+public class ItemProcessingProperties {
+
+    /**
+     * Number of items loaded, updated and committed together in batch mode.
+     */
+    @Min(1)
+    private int chunkSize = 500;
+
+    /**
+     * Maximum number of chunks processed concurrently in batch mode.
+     */
+    @Min(1)
+    private int parallelism = 4;
+
+    /**
+     * Executor running the per-item tasks of {@code processItemsAsync}.
+     */
+    private ExecutorType executor = ExecutorType.PLATFORM;
+
+    /**
+     * Number of threads of the {@code PLATFORM} and {@code SPRING} executors.
+     */
+    @Min(1)
+    private int poolSize = 10;
+
+    /**
+     * Maximum number of tasks talking to the database at the same time, independent of the thread count.
+     * Should match the connection pool size.
+     */
+    @Min(1)
+    private int maxDbConcurrency = 10;
+
+    /**
+     * How long shutdown waits for running tasks before interrupting them.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Adaptive bound on the number of items in flight in {@code processItemsAsync}.
+     */
+    @Valid
+    private final Limiter limiter = new Limiter();
+
+    /**
+     * Retries of items failing with a transient database error.
+     */
+    @Valid
+    private final Retry retry = new Retry();
+
+    @Getter
+    @Setter
+    public static class Limiter {
+
+        /**
+         * Concurrency limit a fresh limiter starts with.
+         */
+        @Min(1)
+        private int initialLimit = 10;
+
+        @Min(1)
+        private int minLimit = 1;
+
+        /**
+         * Upper bound of the limit. With the {@code PLATFORM} and {@code SPRING} executors it is capped at
+         * {@code pool-size}, since further slots would only queue tasks in the executor.
+         */
+        @Min(1)
+        private int maxLimit = 200;
+
+        /**
+         * Latency from submission to completion above which a task counts as a congestion signal
+         * and the limit is reduced.
+         */
+        private Duration latencyThreshold = Duration.ofMillis(50);
+
+        /**
+         * Factor the limit is multiplied with on congestion.
+         */
+        @DecimalMin("0.1")
+        @DecimalMax("0.99")
+        private double backoffRatio = 0.9;
+
+        /**
+         * How long a submission may wait for a free slot before it is rejected.
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+
+        /**
+         * Attempts per item, including the first one. Items still failing afterwards are dead-lettered.
+         */
+        @Min(1)
+        private int maxAttempts = 3;
+
+        /**
+         * Delay before the first retry.
+         */
+        private Duration initialBackoff = Duration.ofMillis(50);
+
+        /**
+         * Factor the delay grows by with every further retry.
+         */
+        @DecimalMin("1.0")
+        private double multiplier = 2.0;
+
+        private Duration maxBackoff = Duration.ofSeconds(1);
+    }
+
+    public enum ExecutorType {
+        /**
+         * Fixed pool of platform threads.
+         */
+        PLATFORM,
+        /**
+         * One virtual thread per task (requires Java 21).
+         */
+        VIRTUAL,
+        /**
+         * Spring-managed {@code ThreadPoolTaskExecutor}.
+         */
+        SPRING
+    }
+}
@@ -0,0 +1,14 @@
+package com.siemens.internship;
+
+import com.siemens.internship.deadletter.DeadLetterItem;
+
+import java.util.List;
+
+/**
+ * Outcome of a per-item processing run.
+ *
+ * @param processed the items processed successfully, in id order
+ * @param failed    the dead-letter entries of the items given up on, in id order
+ */
+public record ItemProcessingResult(List<Item> processed, List<DeadLetterItem> failed) {
+}
@@ -1,11 +1,166 @@
 package com.siemens.internship;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query("SELECT id FROM Item")
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemSearchRepository {
+    @Query("SELECT id FROM Item ORDER BY id")
     List<Long> findAllIds();
+
+    /**
+     * Keyset pagination over the primary key: returns the next ids strictly greater than {@code afterId}.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.id > :afterId ORDER BY i.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Ids of the items due for processing, see {@link ProcessingMode#INCREMENTAL}.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.processedAt IS NULL ORDER BY i.id")
+    List<Long> findUnprocessedIds();
+
+    /**
+     * Keyset pagination over the items due for processing, backed by the (processedAt, id) index.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.processedAt IS NULL AND i.id > :afterId ORDER BY i.id")
+    List<Long> findUnprocessedIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Ids within an already walked id range, used to replay an interrupted chunk.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.id BETWEEN :firstId AND :lastId ORDER BY i.id")
+    List<Long> findIdsBetween(@Param("firstId") Long firstId, @Param("lastId") Long lastId);
+
+    /**
+     * Keyset pagination over whole items, backed by the primary key index.
+     */
+    @Query("SELECT i FROM Item i WHERE i.id > :afterId ORDER BY i.id")
+    List<Item> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Streams all items in id order without materializing the result set.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Item i ORDER BY i.id")
+    Stream<Item> streamAll();
+
+    /**
+     * Which of the given ids exist, in a single query.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Replaces the fields of one item with a single statement, optionally only if its version still matches.
+     * A {@code null} version skips the version check. Returns the number of updated rows (0 or 1).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.name = :name, i.description = :description, i.status = :status, i.email = :email, "
+            + "i.version = i.version + 1, i.modifiedAt = :now, i.processedAt = NULL "
+            + "WHERE i.id = :id AND (:version IS NULL OR i.version = :version)")
+    int updateIfVersion(@Param("id") Long id,
+                        @Param("name") String name,
+                        @Param("description") String description,
+                        @Param("status") String status,
+                        @Param("email") String email,
+                        @Param("version") Long version,
+                        @Param("now") Instant now);
+
+    /**
+     * Deletes one item with a single statement, optionally only if its version still matches.
+     * A {@code null} version skips the version check. Returns the number of deleted rows (0 or 1).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Item i WHERE i.id = :id AND (:version IS NULL OR i.version = :version)")
+    int deleteIfVersion(@Param("id") Long id, @Param("version") Long version);
+
+    @Query("SELECT i.version FROM Item i WHERE i.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Flips the status of all given items in a single statement, releasing their leases.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.status = 'PROCESSED', i.version = i.version + 1, i.modifiedAt = :now, "
+            + "i.processedAt = :now, i.leaseOwner = NULL, i.leaseExpiresAt = NULL WHERE i.id IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Locks the next claimable ids after {@code afterId}: not processed since {@code processedBefore} and not leased,
+     * or leased with an expired lease. Rows locked by another node's claim are skipped instead of waited for,
+     * so concurrent claims get disjoint sets. Must run inside a transaction.
+     */
+    @Query(value = "SELECT id FROM item WHERE id > :afterId "
+            + "AND (processed_at IS NULL OR processed_at < :processedBefore) "
+            + "AND (lease_expires_at IS NULL OR lease_expires_at < :now) "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimableIdsAfter(@Param("afterId") Long afterId,
+                                     @Param("processedBefore") Instant processedBefore,
+                                     @Param("now") Instant now,
+                                     @Param("limit") int limit);
+
+    /**
+     * Leases those of the given items that are still claimable, see {@link #lockClaimableIdsAfter}, to {@code owner}.
+     * The conditions are checked again because a database may hand out rows to a locking SELECT as of its snapshot,
+     * while an UPDATE always sees the latest committed row. Bumps the version, so a node still writing under an
+     * expired lease of the same items fails its optimistic check instead of overwriting the new owner's work.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.leaseOwner = :owner, i.leaseExpiresAt = :expiresAt, i.version = i.version + 1 "
+            + "WHERE i.id IN :ids AND (i.processedAt IS NULL OR i.processedAt < :processedBefore) "
+            + "AND (i.leaseExpiresAt IS NULL OR i.leaseExpiresAt < :now)")
+    int lease(@Param("ids") Collection<Long> ids,
+              @Param("owner") String owner,
+              @Param("processedBefore") Instant processedBefore,
+              @Param("now") Instant now,
+              @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Extends the leases held by the given owners; the heartbeat of running claims.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.leaseExpiresAt = :expiresAt WHERE i.leaseOwner IN :owners")
+    int renewLeases(@Param("owners") Collection<String> owners, @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Gives up the leases still held by {@code owner}, e.g. for items whose processing failed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.leaseOwner = NULL, i.leaseExpiresAt = NULL WHERE i.leaseOwner = :owner")
+    int releaseLeases(@Param("owner") String owner);
+
+    /**
+     * Number of unexpired leases held by owners other than {@code owner} on items not processed since
+     * {@code processedBefore}: work that may still come back if those nodes crash.
+     */
+    @Query("SELECT COUNT(i) FROM Item i WHERE i.leaseOwner <> :owner AND i.leaseExpiresAt >= :now "
+            + "AND (i.processedAt IS NULL OR i.processedAt < :processedBefore)")
+    long countLeasedByOthers(@Param("owner") String owner,
+                             @Param("processedBefore") Instant processedBefore,
+                             @Param("now") Instant now);
+
+    /**
+     * Which of the given ids are still leased to {@code owner}, locking those rows until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i.id FROM Item i WHERE i.id IN :ids AND i.leaseOwner = :owner")
+    List<Long> lockLeasedIds(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
 }
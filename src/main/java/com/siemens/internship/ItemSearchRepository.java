@@ -0,0 +1,14 @@
+package com.siemens.internship;
+
+import java.util.List;
+
+/**
+ * Custom {@link ItemRepository} fragment for filtered searches, see {@link ItemSearchRepositoryImpl}.
+ */
+public interface ItemSearchRepository {
+
+    /**
+     * Returns up to {@code limit} items matching {@code filter} with an id greater than {@code afterId}, in id order.
+     */
+    List<ItemSummary> search(ItemFilter filter, long afterId, int limit);
+}
@@ -0,0 +1,60 @@
+package com.siemens.internship;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the search query from the criteria actually given, so the status and email restrictions are plain
+ * {@code column = ?} the database can serve from their indexes; optional parameters written as
+ * {@code (:p IS NULL OR column = :p)} would force a scan instead. The name filter is a {@code LIKE '%x%'},
+ * which no index can serve: it is checked row by row on the rows the other restrictions and the id order select,
+ * so a name-only search walks the table by id until the page is full.
+ */
+class ItemSearchRepositoryImpl implements ItemSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    ItemSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ItemSummary> search(ItemFilter filter, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ItemSummary> query = cb.createQuery(ItemSummary.class);
+        Root<Item> item = query.from(Item.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(item.get("id"), afterId));
+        if (filter.status() != null) {
+            predicates.add(cb.equal(item.get("status"), filter.status()));
+        }
+        if (filter.email() != null) {
+            predicates.add(cb.equal(item.get("email"), filter.email()));
+        }
+        if (filter.nameContains() != null) {
+            predicates.add(cb.like(item.get("name"), "%" + escapeLike(filter.nameContains()) + "%", LIKE_ESCAPE));
+        }
+
+        query.select(cb.construct(ItemSummary.class,
+                        item.get("id"), item.get("name"), item.get("status"), item.get("email"), item.get("version")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(item.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
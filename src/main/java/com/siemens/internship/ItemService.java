@@ -1,37 +1,240 @@
 package com.siemens.internship;
 
+import com.siemens.internship.change.ItemChangeLog;
+import com.siemens.internship.change.ItemChangeType;
+import com.siemens.internship.cluster.ItemLeaseManager;
+import com.siemens.internship.deadletter.DeadLetterItem;
+import com.siemens.internship.deadletter.DeadLetterStore;
 import com.siemens.internship.exception.ItemNotFoundException;
+import com.siemens.internship.exception.ItemVersionConflictException;
+import com.siemens.internship.pipeline.ItemPipeline;
+import com.siemens.internship.pipeline.ItemProcessorChain;
+import com.siemens.internship.pipeline.PipelineSummary;
+import com.siemens.internship.store.ItemStore;
+import com.siemens.internship.writebehind.ItemWriteBehindQueue;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "item.service", description = "ItemService method invocations")
 public class ItemService {
     private final ItemRepository itemRepository;
-    private static final ExecutorService executor = Executors.newFixedThreadPool(10);
+    // by-id access and the id scans of per-item runs, the repository serves the table-wide queries
+    private final ItemStore itemStore;
+    private final ItemBatchProcessor batchProcessor;
+    private final ItemPipeline pipeline;
+    private final ItemProcessorChain processors;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    // bounds concurrent database work by the connection pool size, not by the number of threads
+    private final Semaphore dbPermits;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ItemCache itemCache;
+    private final ItemChangeLog changeLog;
+    private final RetryPolicy retryPolicy;
+    private final DeadLetterStore deadLetterStore;
+    private final ItemLeaseManager leaseManager;
+    private final ItemWriteBehindQueue writeBehind;
+    private final int claimSize;
+    private final Timer itemTimer;
+    private final Counter itemsProcessed;
+    private final Counter itemsFailed;
+    private final ItemProcessingProperties.Limiter limiterSettings;
+    // concurrent requests for the same kind of run and mode attach to the run in flight
+    private final SingleFlight<ProcessingMode, ItemProcessingResult> perItemRuns;
+    private final SingleFlight<ProcessingMode, ProcessingSummary> batchRuns;
+    private final SingleFlight<ProcessingMode, PipelineSummary> pipelineRuns;
+    // runs the submission loops and walks, which block on the workers and must not occupy worker threads
+    private final ExecutorService dispatcher = Executors.newCachedThreadPool(new CustomizableThreadFactory("item-dispatch-"));
 
-    public ItemService(ItemRepository itemRepository) {
+    public ItemService(ItemRepository itemRepository,
+                       ItemStore itemStore,
+                       ItemBatchProcessor batchProcessor,
+                       ItemPipeline pipeline,
+                       ItemProcessorChain processors,
+                       EntityManager entityManager,
+                       TransactionTemplate transactionTemplate,
+                       @Qualifier(ItemExecutorConfiguration.ITEM_PROCESSING_EXECUTOR) Executor executor,
+                       AdaptiveConcurrencyLimiter limiter,
+                       ItemCache itemCache,
+                       ItemChangeLog changeLog,
+                       RetryPolicy retryPolicy,
+                       DeadLetterStore deadLetterStore,
+                       ItemLeaseManager leaseManager,
+                       ItemWriteBehindQueue writeBehind,
+                       ItemProcessingProperties properties,
+                       MeterRegistry registry) {
         this.itemRepository = itemRepository;
+        this.itemStore = itemStore;
+        this.batchProcessor = batchProcessor;
+        this.pipeline = pipeline;
+        this.processors = processors;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.limiter = limiter;
+        this.itemCache = itemCache;
+        this.changeLog = changeLog;
+        this.retryPolicy = retryPolicy;
+        this.deadLetterStore = deadLetterStore;
+        this.leaseManager = leaseManager;
+        this.writeBehind = writeBehind;
+        this.claimSize = properties.getChunkSize();
+        this.limiterSettings = properties.getLimiter();
+        this.dbPermits = new Semaphore(properties.getMaxDbConcurrency());
+        this.itemTimer = Timer.builder("item.processing.item.duration")
+                .description("Time to process a single item in processItemsAsync")
+                .register(registry);
+        this.itemsProcessed = ItemProcessingMetrics.items(registry, "per-item", ItemProcessingMetrics.PROCESSED);
+        this.itemsFailed = ItemProcessingMetrics.items(registry, "per-item", ItemProcessingMetrics.FAILED);
+        this.perItemRuns = new SingleFlight<>("per-item", registry);
+        this.batchRuns = new SingleFlight<>("batch", registry);
+        this.pipelineRuns = new SingleFlight<>("pipeline", registry);
     }
 
     public List<Item> findAll() {
         return itemRepository.findAll();
     }
 
+    /**
+     * Returns at most {@code limit} items with an id greater than {@code afterId}, ordered by id.
+     */
+    public List<Item> findPage(long afterId, int limit) {
+        return itemRepository.findPageAfter(afterId, Limit.of(limit));
+    }
+
+    /**
+     * Returns at most {@code limit} summaries of the items matching {@code filter} after {@code afterId}, by id.
+     */
+    public List<ItemSummary> search(ItemFilter filter, long afterId, int limit) {
+        return itemRepository.search(filter, afterId, limit);
+    }
+
+    /**
+     * Feeds every item to {@code consumer} in id order while keeping only the current row in memory.
+     * Each item is detached after it has been consumed so the persistence context does not grow.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Item> consumer) {
+        try (Stream<Item> items = itemRepository.streamAll()) {
+            items.forEach(item -> {
+                consumer.accept(item);
+                entityManager.detach(item);
+            });
+        }
+    }
+
+    // sync: concurrent misses for the same id share one query instead of each loading the row
+    @Cacheable(cacheNames = ItemCacheConfiguration.ITEMS_CACHE, key = "#id", sync = true)
     public Item findById(Long id) {
-        return itemRepository.findById(id)
+        return itemStore.findById(id)
                 .orElseThrow(() -> new ItemNotFoundException(id));
     }
 
+    // evict rather than put: callers keep mutating the instance they passed in
+    @Transactional
+    @CacheEvict(cacheNames = ItemCacheConfiguration.ITEMS_CACHE, key = "#item.id", condition = "#item.id != null")
     public Item save(Item item) {
-        return itemRepository.save(item);
+        return persist(item);
+    }
+
+    /**
+     * Inserts a new item. With {@code item.write-behind.enabled} the item is queued and committed together
+     * with other creates (see {@link ItemWriteBehindQueue}); either way the future completes once it is durable.
+     */
+    public CompletableFuture<Item> create(Item item) {
+        // always a new row, never a merge into an existing one
+        item.setId(null);
+        item.setVersion(null);
+        if (writeBehind.isEnabled()) {
+            return writeBehind.submit(item);
+        }
+        return CompletableFuture.completedFuture(transactionTemplate.execute(status -> persist(item)));
     }
 
+    private Item persist(Item item) {
+        ItemChangeType type = item.getId() == null ? ItemChangeType.CREATED : ItemChangeType.UPDATED;
+        item.markModified(Instant.now());
+        // the store returns the new version, which the change record has to carry
+        Item saved = itemStore.save(item);
+        changeLog.record(type, saved);
+        return saved;
+    }
+
+    /**
+     * Replaces the fields of an existing item in one write, with the JPA store one {@code UPDATE ... WHERE id = ?}
+     * statement. When {@code item} carries a version the statement only matches that version, and the new version is
+     * known without reading the row back; otherwise the write is unconditional and the version is re-read.
+     *
+     * @throws ItemNotFoundException        if no item has this id
+     * @throws ItemVersionConflictException if the item exists with a different version
+     */
+    @Transactional
+    @CacheEvict(cacheNames = ItemCacheConfiguration.ITEMS_CACHE, key = "#id")
+    public Item update(Long id, Item item) {
+        Long expected = item.getVersion();
+        Instant now = Instant.now();
+        Long version = itemStore.update(id, item, expected, now).orElseThrow(() -> missingOrConflict(id, expected));
+        Item updated = new Item(id, item.getName(), item.getDescription(), item.getStatus(), item.getEmail(), version);
+        updated.markModified(now);
+        changeLog.record(ItemChangeType.UPDATED, updated);
+        return updated;
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = ItemCacheConfiguration.ITEMS_CACHE, key = "#id")
     public void deleteById(Long id) {
-        itemRepository.deleteById(id);
+        delete(id, null);
+    }
+
+    /**
+     * Deletes an item in one write, with the JPA store one {@code DELETE ... WHERE id = ?} statement, restricted to
+     * {@code expectedVersion} when it is not {@code null}.
+     *
+     * @throws ItemNotFoundException        if no item has this id
+     * @throws ItemVersionConflictException if the item exists with a different version
+     */
+    @Transactional
+    @CacheEvict(cacheNames = ItemCacheConfiguration.ITEMS_CACHE, key = "#id")
+    public void delete(Long id, Long expectedVersion) {
+        if (!itemStore.deleteById(id, expectedVersion)) {
+            throw missingOrConflict(id, expectedVersion);
+        }
+        changeLog.recordDeleted(List.of(id));
+    }
+
+    // only reached when the statement matched nothing, so the happy path stays at one statement
+    private RuntimeException missingOrConflict(Long id, Long expectedVersion) {
+        if (expectedVersion != null && itemStore.existsById(id)) {
+            return new ItemVersionConflictException(id, expectedVersion);
+        }
+        return new ItemNotFoundException(id);
     }
 
 
@@ -54,7 +257,15 @@ public class ItemService {
      * Consider the interaction between Spring's @Async and CompletableFuture
      */
     @Async
-    public CompletableFuture<List<Item>> processItemsAsync() {
+    public CompletableFuture<ItemProcessingResult> processItemsAsync() {
+        return processItemsAsync(ProcessingMode.FULL);
+    }
+
+    /**
+     * Same as {@link #processItemsAsync()}, restricted to the items selected by {@code mode}.
+     */
+    @Async
+    public CompletableFuture<ItemProcessingResult> processItemsAsync(ProcessingMode mode) {
         // Original code
         //        for (Long id: itemIds) {
         //            CompletableFuture.runAsync(() -> {
@@ -80,38 +291,203 @@ public class ItemService {
 
         // Refactored code
         // Improvements:
-        // 1. Use CompletableFuture composition to coordinate multiple async operations
-        // 2. Return a CompletableFuture instead of a list of items
-        // 3. Throw a new CompletionException if an error occurs during processing
-        // 4. Remove the shared state altogether and return the list of processed items directly as a CompletableFuture
-        // (we could synchronize the processedCount with AtomicInteger and the processedItems with Collections.synchronizedList,
-        // but that would be unnecessary for this app)
-        List<Long> itemIds = itemRepository.findAllIds();
-
-        List<CompletableFuture<Item>> futures = itemIds.stream() // use functional style
-                .map(id -> CompletableFuture.supplyAsync(() -> {
+        // 1. Return a CompletableFuture instead of a list of items. An item failing with a transient database error
+        //    is retried with backoff; an item that still fails is dead-lettered and reported in the result, so the
+        //    rest of the run is kept. Only run-level errors (no slot, interrupt, dead-letter write) fail the future
+        // 2. Remove the shared counters; every task writes its result into its own slot of an array, so no
+        //    synchronization is needed and the result keeps the id order
+        // 3. Bound the work in flight: a dispatcher thread takes a slot from the adaptive limiter before submitting
+        //    each item, so neither futures nor executor queue grow with the table size, and the limit backs off
+        //    when database latency rises
+        // 4. In incremental mode only the items never processed or changed since are loaded
+        // 5. The simulated work (Thread.sleep) is replaced by the ItemProcessor chain
+        // 6. In cluster mode the ids are claimed chunk by chunk through leases, so several instances split the items
+        // 7. Concurrent requests for the same mode attach to the run in flight instead of each walking the table
+        return perItemRuns.run(mode, () -> CompletableFuture.supplyAsync(() -> processAllItems(mode), dispatcher));
+    }
+
+    private ItemProcessingResult processAllItems(ProcessingMode mode) {
+        if (leaseManager.isEnabled()) {
+            try (ItemLeaseManager.Claim claim = leaseManager.open(mode)) {
+                return processAllItems(() -> claim.next(claimSize), claim.owner());
+            }
+        }
+        List<Long> itemIds = mode == ProcessingMode.INCREMENTAL
+                ? itemStore.findUnprocessedIds()
+                : itemStore.findAllIds();
+        Iterator<List<Long>> chunks = List.of(itemIds).iterator();
+        return processAllItems(() -> chunks.hasNext() ? chunks.next() : List.of(), null);
+    }
+
+    /**
+     * Processes the ids supplied by {@code source} chunk by chunk, see {@link #processItemsAsync(ProcessingMode)}.
+     *
+     * @param owner the lease owner in cluster mode, otherwise {@code null}
+     */
+    private ItemProcessingResult processAllItems(IdSource source, String owner) {
+        // one pair of arrays per chunk, only touched by this thread
+        List<Item[]> results = new ArrayList<>();
+        List<DeadLetterItem[]> failures = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Phaser pending = new Phaser(1);
+
+        try {
+            List<Long> itemIds;
+            while (failure.get() == null && !(itemIds = source.next()).isEmpty()) {
+                Item[] chunkResults = new Item[itemIds.size()];
+                DeadLetterItem[] chunkFailures = new DeadLetterItem[itemIds.size()];
+                results.add(chunkResults);
+                failures.add(chunkFailures);
+                for (int i = 0; i < chunkResults.length && failure.get() == null; i++) {
+                    if (!limiter.tryAcquire(limiterSettings.getAcquireTimeout())) {
+                        throw new RejectedExecutionException("No processing slot became free within "
+                                + limiterSettings.getAcquireTimeout());
+                    }
+                    int slot = i;
+                    Long id = itemIds.get(i);
+                    // the limiter sees the wait for a thread as latency too, so it backs off when tasks queue up
+                    long submitted = System.nanoTime();
+                    pending.register();
                     try {
-                        Thread.sleep(100);
-
-                        return itemRepository.findById(id)
-                                .map(item -> {
-                                    item.setStatus("PROCESSED");
-                                    return itemRepository.save(item);
-                                })
-                                .orElse(null);
-                    } catch (InterruptedException e) {
-                        // in case of exceptions, interrupt the thread and propagate the exception
-                        Thread.currentThread().interrupt();
-                        throw new CompletionException(e);
+                        executor.execute(() -> {
+                            long start = System.nanoTime();
+                            boolean success = false;
+                            // a bad row is no sign of an overloaded database, only transient and unexpected errors are
+                            boolean congested = false;
+                            try {
+                                try {
+                                    chunkResults[slot] = retryPolicy.execute(() -> processItem(id, owner));
+                                    success = true;
+                                } catch (RetryPolicy.Failure e) {
+                                    // park the item and carry on with the others
+                                    congested = e.isTransient();
+                                    chunkFailures[slot] = deadLetterStore.record(id, "per-item",
+                                            e.getAttempts(), e.getCause());
+                                }
+                            } catch (InterruptedException e) {
+                                // in case of exceptions, interrupt the thread and propagate the exception
+                                Thread.currentThread().interrupt();
+                                congested = true;
+                                failure.compareAndSet(null, e);
+                            } catch (Throwable t) {
+                                congested = true;
+                                failure.compareAndSet(null, t);
+                            } finally {
+                                long end = System.nanoTime();
+                                limiter.release(end - submitted, !congested);
+                                itemTimer.record(end - start, TimeUnit.NANOSECONDS);
+                                (success ? itemsProcessed : itemsFailed).increment();
+                                pending.arriveAndDeregister();
+                            }
+                        });
+                    } catch (RuntimeException e) {
+                        limiter.release(0, false);
+                        pending.arriveAndDeregister();
+                        throw e;
                     }
-                }, executor)).toList();
-
-        // wait for all futures to complete and return the list of processed items
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .thenApply(v -> futures.stream()
-                        .map(CompletableFuture::join)
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toList()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+
+        // wait for the tasks still in flight; the phaser also publishes their writes to the arrays
+        pending.arriveAndAwaitAdvance();
+        if (failure.get() != null) {
+            throw new CompletionException(failure.get());
+        }
+        return new ItemProcessingResult(
+                results.stream().flatMap(Arrays::stream).filter(Objects::nonNull).collect(Collectors.toList()),
+                failures.stream().flatMap(Arrays::stream).filter(Objects::nonNull).collect(Collectors.toList()));
+    }
+
+    /**
+     * Supplies the ids of one per-item run chunk by chunk; an empty chunk ends the run.
+     */
+    @FunctionalInterface
+    private interface IdSource {
+        List<Long> next() throws InterruptedException;
+    }
+
+    /**
+     * One attempt at processing an item, in its own transaction; {@code null} if the item no longer exists
+     * or, in cluster mode, its lease has been taken over by another node.
+     */
+    private Item processItem(Long id, String owner) throws InterruptedException {
+        dbPermits.acquire();
+        try {
+            // the status change and its change record commit together. A lease taken over after the read bumps
+            // the version, so the save fails its optimistic check and the retry sees the new owner
+            Item processed = transactionTemplate.execute(status -> itemStore.findById(id)
+                    .filter(item -> owner == null || owner.equals(item.getLeaseOwner()))
+                    .map(item -> {
+                        processors.apply(item);
+                        item.markProcessed(Instant.now());
+                        // a failed version check surfaces as a retryable OptimisticLockingFailureException
+                        Item saved = itemStore.save(item);
+                        changeLog.record(ItemChangeType.PROCESSED, saved);
+                        return saved;
+                    })
+                    .orElse(null));
+            itemCache.evict(id);
+            return processed;
+        } finally {
+            dbPermits.release();
+        }
+    }
+
+    public LimiterSnapshot limiterSnapshot() {
+        return limiter.snapshot();
+    }
+
+    public ItemCache.CacheStatsSnapshot cacheStats() {
+        return itemCache.stats();
+    }
+
+    /**
+     * Batch variant of {@link #processItemsAsync()}: walks the ids in chunks and updates each chunk with a
+     * single statement (see {@link ItemBatchProcessor}). Only a summary is returned, so memory stays flat
+     * regardless of the table size. Like the other runs, concurrent requests for the same mode share one run.
+     */
+    public CompletableFuture<ProcessingSummary> processItemsInBatches() {
+        return processItemsInBatches(ProcessingMode.FULL);
+    }
+
+    /**
+     * Same as {@link #processItemsInBatches()}, restricted to the items selected by {@code mode}.
+     */
+    public CompletableFuture<ProcessingSummary> processItemsInBatches(ProcessingMode mode) {
+        // the walk blocks until its chunks are done, which run on the worker threads
+        return batchRuns.run(mode, () -> CompletableFuture.supplyAsync(() -> batchProcessor.processAll(mode, items -> {
+        }), dispatcher));
+    }
+
+    /**
+     * Staged variant of {@link #processItemsInBatches()}: every item runs through the {@link ItemProcessorChain}
+     * between a fetch and a persist stage, each with its own threads (see {@link ItemPipeline}).
+     * The summary reports the time spent in every stage.
+     */
+    public CompletableFuture<PipelineSummary> processItemsInPipeline(ProcessingMode mode) {
+        return pipelineRuns.run(mode, () -> CompletableFuture.supplyAsync(() -> pipeline.run(mode, items -> {
+        }), dispatcher));
+    }
+
+    /**
+     * Synchronous batch run that hands every committed chunk to {@code listener} as soon as it is durable.
+     * Used by the streaming endpoint, which writes each chunk to the client instead of collecting all results.
+     *
+     * @param listener called concurrently from the chunk workers, so it must be thread-safe
+     */
+    public ProcessingSummary processItems(ProcessingMode mode, Consumer<List<Item>> listener) {
+        return batchProcessor.processAll(mode, listener);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
     }
 
 }
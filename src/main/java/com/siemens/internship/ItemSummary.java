@@ -0,0 +1,8 @@
+package com.siemens.internship;
+
+/**
+ * Read-only projection returned by filtered queries; built straight from the selected columns,
+ * so no entity is hydrated or tracked by the persistence context.
+ */
+public record ItemSummary(Long id, String name, String status, String email, Long version) {
+}
@@ -0,0 +1,11 @@
+package com.siemens.internship;
+
+/**
+ * Point-in-time view of an {@link AdaptiveConcurrencyLimiter}.
+ *
+ * @param limit    current concurrency limit
+ * @param inFlight tasks currently holding a slot
+ * @param rejected submissions that timed out waiting for a slot since startup
+ */
+public record LimiterSnapshot(int limit, int inFlight, long rejected) {
+}
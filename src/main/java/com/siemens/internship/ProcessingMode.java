@@ -0,0 +1,16 @@
+package com.siemens.internship;
+
+/**
+ * Which items a processing run picks up.
+ */
+public enum ProcessingMode {
+    /**
+     * Every item, whatever its state.
+     */
+    FULL,
+    /**
+     * Only items never processed or modified since they were last processed, so the cost of a run
+     * follows the number of changes rather than the table size.
+     */
+    INCREMENTAL
+}
@@ -0,0 +1,11 @@
+package com.siemens.internship;
+
+/**
+ * Outcome of a batch processing run.
+ *
+ * @param processed     number of items whose status was updated
+ * @param chunks        number of chunks committed
+ * @param elapsedMillis wall-clock duration of the run
+ */
+public record ProcessingSummary(long processed, int chunks, long elapsedMillis) {
+}
@@ -0,0 +1,89 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries work failing with a transient database error (lock timeout, deadlock, optimistic lock, ...)
+ * with exponential backoff, see {@code item.processing.retry.*}. Any other error is not retried.
+ * Each delay is randomized between half and all of its nominal value, so that items failing together
+ * do not retry in lockstep.
+ */
+@Component
+public class RetryPolicy {
+
+    private final ItemProcessingProperties.Retry settings;
+    private final Counter retries;
+
+    public RetryPolicy(ItemProcessingProperties properties, MeterRegistry registry) {
+        this.settings = properties.getRetry();
+        this.retries = Counter.builder("item.processing.retries")
+                .description("Attempts repeated after a transient database error")
+                .register(registry);
+    }
+
+    /**
+     * Runs {@code action} until it succeeds, fails with a non-transient error or runs out of attempts.
+     *
+     * @throws Failure              with the last error once the action is given up
+     * @throws InterruptedException if interrupted by the action or during a backoff; never retried
+     */
+    public <T> T execute(Callable<T> action) throws InterruptedException {
+        long backoff = settings.getInitialBackoff().toNanos();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.call();
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                if (attempt >= settings.getMaxAttempts() || !isTransient(e)) {
+                    throw new Failure(attempt, e);
+                }
+            }
+            retries.increment();
+            TimeUnit.NANOSECONDS.sleep(backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+            backoff = Math.min((long) (backoff * settings.getMultiplier()), settings.getMaxBackoff().toNanos());
+        }
+    }
+
+    public static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            // the JPA ones reach here untranslated when the EntityManager is used directly
+            if (cause instanceof TransientDataAccessException || cause instanceof OptimisticLockException
+                    || cause instanceof PessimisticLockException || cause instanceof LockTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Work given up by {@link #execute(Callable)}; the cause is the error of the last attempt.
+     */
+    public static class Failure extends RuntimeException {
+
+        private final int attempts;
+
+        Failure(int attempts, Throwable cause) {
+            super(cause.getMessage(), cause);
+            this.attempts = attempts;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public boolean isTransient() {
+            return RetryPolicy.isTransient(getCause());
+        }
+    }
+}
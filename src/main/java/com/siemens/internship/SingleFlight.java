@@ -0,0 +1,62 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * De-duplicates concurrent asynchronous work by key: while a run for a key is in flight, further requests for
+ * the same key attach to it instead of starting their own. Once the run completes, the next request starts a
+ * new one, so nothing is cached beyond the lifetime of a run.
+ *
+ * @param <K> identifies equivalent work
+ * @param <V> the result shared by all requests attached to one run
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    /**
+     * @param name tags the counter of requests that attached to a run in flight
+     */
+    public SingleFlight(String name, MeterRegistry registry) {
+        this.coalesced = Counter.builder("item.processing.coalesced")
+                .description("Requests served by a run already in flight instead of starting their own")
+                .tag("run", name)
+                .register(registry);
+    }
+
+    /**
+     * Returns the result of the run in flight for {@code key}, starting one with {@code start} if there is none.
+     * Every caller gets its own dependent future, so cancelling or completing it does not affect the others.
+     */
+    public CompletableFuture<V> run(K key, Supplier<CompletableFuture<V>> start) {
+        CompletableFuture<V> run = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, run);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+        // start outside the map, so that a run completing synchronously can remove itself
+        CompletableFuture<V> started;
+        try {
+            started = start.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((result, error) -> {
+            inFlight.remove(key, run);
+            if (error != null) {
+                run.completeExceptionally(error);
+            } else {
+                run.complete(result);
+            }
+        });
+        return run.copy();
+    }
+}
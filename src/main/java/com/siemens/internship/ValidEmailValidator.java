@@ -0,0 +1,15 @@
+package com.siemens.internship;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Checks {@link ValidEmail} with the same scan as the bulk validation.
+ */
+public class ValidEmailValidator implements ConstraintValidator<ValidEmail, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || ItemValidator.isValidEmail(value);
+    }
+}
@@ -0,0 +1,48 @@
+package com.siemens.internship.change;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Outbox record of one item mutation, written in the transaction of the mutation itself.
+ * The sequence number orders the changes and is the cursor consumers resume from.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class ItemChange {
+    @Id
+    // no pooled ranges: numbers must follow allocation order across all nodes writing to the table,
+    // otherwise a node working through an older range would write below cursors already handed out
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_change_seq")
+    @SequenceGenerator(name = "item_change_seq", sequenceName = "item_change_seq", allocationSize = 1)
+    private Long seq;
+
+    private Long itemId;
+
+    @Enumerated(EnumType.STRING)
+    private ItemChangeType type;
+
+    // version of the item after the change, null for deletions
+    private Long version;
+
+    private Instant changedAt;
+
+    public ItemChange(Long itemId, ItemChangeType type, Long version, Instant changedAt) {
+        this.itemId = itemId;
+        this.type = type;
+        this.version = version;
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,42 @@
+package com.siemens.internship.change;
+
+import com.siemens.internship.exception.ItemValidationException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/items/changes")
+public class ItemChangeController {
+
+    static final int MAX_LIMIT = 1000;
+    static final int MAX_WAIT_SECONDS = 60;
+
+    private final ItemChangeLog changeLog;
+
+    public ItemChangeController(ItemChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * Long-poll change feed: returns the changes after {@code since} right away if there are any,
+     * otherwise holds the request until one commits or {@code wait} seconds have passed (empty page).
+     * Consumers follow the feed by passing the returned {@code next} as {@code since}.
+     */
+    @GetMapping
+    public DeferredResult<ItemChangePage> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                     @RequestParam(defaultValue = "100") int limit,
+                                                     @RequestParam(defaultValue = "30") int wait) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ItemValidationException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (wait < 0 || wait > MAX_WAIT_SECONDS) {
+            throw new ItemValidationException("wait must be between 0 and " + MAX_WAIT_SECONDS + " seconds");
+        }
+        return changeLog.poll(since, limit, Duration.ofSeconds(wait));
+    }
+}
@@ -0,0 +1,20 @@
+package com.siemens.internship.change;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single row that change writers lock before allocating sequence numbers when several nodes share the database,
+ * so that the changes of all nodes commit in sequence order.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemChangeHead {
+    @Id
+    private Long id;
+}
@@ -0,0 +1,19 @@
+package com.siemens.internship.change;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ItemChangeHeadRepository extends JpaRepository<ItemChangeHead, Long> {
+
+    /**
+     * Locks the head row until the end of the transaction, waiting for the writer holding it to commit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h.id FROM ItemChangeHead h WHERE h.id = :id")
+    Optional<Long> lock(@Param("id") Long id);
+}
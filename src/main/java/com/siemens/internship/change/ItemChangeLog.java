@@ -0,0 +1,195 @@
+package com.siemens.internship.change;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.cluster.ItemClusterProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Transactional outbox for item mutations and the long-poll feed reading it.
+ * <p>
+ * Writers call the {@code record} methods inside the transaction of the mutation, so a change is visible
+ * exactly when the mutation is. Sequence numbers are handed out before commit, so a change can commit after
+ * one with a higher number has already been served. To never skip it, readers only see changes below the
+ * lowest sequence number still in flight on this node.
+ * <p>
+ * That horizon cannot see the writers of other nodes. With {@code item.cluster.enabled}, writers therefore also lock
+ * a shared head row before allocating their numbers and hold it until they complete, so changes commit in sequence
+ * order across all nodes. This serializes the recording transactions of the cluster from their {@code record} call
+ * to their commit.
+ */
+@Service
+public class ItemChangeLog {
+
+    private static final Long HEAD_ID = 1L;
+
+    private final ItemChangeRepository changeRepository;
+    private final ItemChangeHeadRepository headRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean serializeWriters;
+    // sequence numbers written by transactions that have not completed yet
+    private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    // writers share the lock while allocating and registering, readers take it exclusively to compute the horizon
+    private final ReadWriteLock horizonLock = new ReentrantReadWriteLock();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeUpScheduled = new AtomicBoolean();
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("item-changes-"));
+
+    public ItemChangeLog(ItemChangeRepository changeRepository,
+                         ItemChangeHeadRepository headRepository,
+                         ApplicationEventPublisher eventPublisher,
+                         TransactionTemplate transactionTemplate,
+                         ItemClusterProperties clusterProperties) {
+        this.changeRepository = changeRepository;
+        this.headRepository = headRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.serializeWriters = clusterProperties.isEnabled();
+    }
+
+    @PostConstruct
+    void createHead() {
+        if (!serializeWriters) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!headRepository.existsById(HEAD_ID)) {
+                    headRepository.saveAndFlush(new ItemChangeHead(HEAD_ID));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another node starting at the same time created it
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ItemChangeType type, Item item) {
+        recordAll(type, List.of(item));
+    }
+
+    /**
+     * Records one change per item, using the item's current version.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(ItemChangeType type, Collection<Item> items) {
+        Instant now = Instant.now();
+        write(items.stream().map(item -> new ItemChange(item.getId(), type, item.getVersion(), now)).toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Collection<Long> ids) {
+        Instant now = Instant.now();
+        write(ids.stream().map(id -> new ItemChange(id, ItemChangeType.DELETED, null, now)).toList());
+    }
+
+    private void write(List<ItemChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (serializeWriters) {
+            headRepository.lock(HEAD_ID);
+        }
+        List<Long> seqs;
+        horizonLock.readLock().lock();
+        try {
+            seqs = changeRepository.saveAll(changes).stream().map(ItemChange::getSeq).toList();
+            inFlight.addAll(seqs);
+        } finally {
+            horizonLock.readLock().unlock();
+        }
+        eventPublisher.publishEvent(new ItemChangesRecorded(seqs));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onCompletion(ItemChangesRecorded event) {
+        event.seqs().forEach(inFlight::remove);
+        scheduleWakeUp();
+    }
+
+    /**
+     * Returns up to {@code limit} committed changes after {@code since}.
+     */
+    public ItemChangePage read(long since, int limit) {
+        long horizon;
+        horizonLock.writeLock().lock();
+        try {
+            horizon = inFlight.isEmpty() ? Long.MAX_VALUE : inFlight.first();
+        } finally {
+            horizonLock.writeLock().unlock();
+        }
+        return ItemChangePage.of(changeRepository.findBetween(since, horizon, Limit.of(limit)), since);
+    }
+
+    /**
+     * Long poll: completes as soon as changes after {@code since} are committed, or with an empty page after {@code wait}.
+     */
+    public DeferredResult<ItemChangePage> poll(long since, int limit, Duration wait) {
+        DeferredResult<ItemChangePage> result = new DeferredResult<>(wait.toMillis(), ItemChangePage.of(List.of(), since));
+        ItemChangePage page = read(since, limit);
+        if (!page.changes().isEmpty() || wait.isZero()) {
+            result.setResult(page);
+            return result;
+        }
+        Waiter waiter = new Waiter(since, limit, result);
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        // a commit between the read above and the registration would otherwise go unnoticed until the next one
+        scheduleWakeUp();
+        return result;
+    }
+
+    // coalesces bursts of commits into one pass over the waiters
+    private void scheduleWakeUp() {
+        if (!waiters.isEmpty() && wakeUpScheduled.compareAndSet(false, true)) {
+            notifier.execute(this::wakeUpWaiters);
+        }
+    }
+
+    private void wakeUpWaiters() {
+        wakeUpScheduled.set(false);
+        for (Waiter waiter : waiters) {
+            if (waiter.result().isSetOrExpired()) {
+                continue;
+            }
+            ItemChangePage page = read(waiter.since(), waiter.limit());
+            if (!page.changes().isEmpty()) {
+                waiter.result().setResult(page);
+            }
+        }
+    }
+
+    private record Waiter(long since, int limit, DeferredResult<ItemChangePage> result) {
+    }
+
+    @PreDestroy
+    void shutdown() {
+        notifier.shutdownNow();
+    }
+}
@@ -0,0 +1,13 @@
+package com.siemens.internship.change;
+
+import java.util.List;
+
+/**
+ * Changes after a cursor, in sequence order; {@code next} is the cursor to pass as {@code since} on the next poll.
+ */
+public record ItemChangePage(List<ItemChange> changes, long next) {
+
+    static ItemChangePage of(List<ItemChange> changes, long since) {
+        return new ItemChangePage(changes, changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq());
+    }
+}
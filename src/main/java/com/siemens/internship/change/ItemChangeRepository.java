@@ -0,0 +1,17 @@
+package com.siemens.internship.change;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ItemChangeRepository extends JpaRepository<ItemChange, Long> {
+
+    /**
+     * Changes with {@code since < seq < horizon}, in sequence order.
+     */
+    @Query("SELECT c FROM ItemChange c WHERE c.seq > :since AND c.seq < :horizon ORDER BY c.seq")
+    List<ItemChange> findBetween(@Param("since") long since, @Param("horizon") long horizon, Limit limit);
+}
@@ -0,0 +1,10 @@
+package com.siemens.internship.change;
+
+import java.util.List;
+
+/**
+ * Published for every batch of recorded changes and delivered once their transaction has completed,
+ * whether it committed or rolled back.
+ */
+record ItemChangesRecorded(List<Long> seqs) {
+}
@@ -0,0 +1,27 @@
+package com.siemens.internship.cluster;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Schedules the lease heartbeat of {@link ItemLeaseManager} every {@code item.cluster.heartbeat-interval}.
+ */
+@Configuration
+@EnableScheduling
+public class ItemClusterConfiguration implements SchedulingConfigurer {
+
+    private final ItemLeaseManager leaseManager;
+    private final ItemClusterProperties properties;
+
+    public ItemClusterConfiguration(ItemLeaseManager leaseManager, ItemClusterProperties properties) {
+        this.leaseManager = leaseManager;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(leaseManager::renewLeases, properties.getHeartbeatInterval());
+    }
+}
@@ -0,0 +1,49 @@
+package com.siemens.internship.cluster;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * Cluster-safe processing, bound from the {@code item.cluster.*} properties.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "item.cluster")
+public class ItemClusterProperties {
+
+    /**
+     * Claim items through leases before processing them, so that several instances sharing
+     * the database split the work instead of each processing every item. Also makes the change feed
+     * gap-free across instances, at the cost of serializing the transactions that record changes.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Identifies this instance in the lease owners. Defaults to {@code pid@host}.
+     */
+    @NotBlank
+    private String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    /**
+     * How long a claimed item stays reserved without a heartbeat. A crashed node's items are reclaimed after this,
+     * and its processing jobs are resumed by another node. Must be well above the heartbeat interval and the clock
+     * skew between nodes.
+     */
+    @NotNull
+    private Duration leaseDuration = Duration.ofSeconds(30);
+
+    /**
+     * How often running claims renew their leases and running jobs their heartbeat. Also the pause between checks
+     * while the only work left is leased by other nodes, and between checks for jobs of stopped nodes.
+     */
+    @NotNull
+    private Duration heartbeatInterval = Duration.ofSeconds(10);
+}
@@ -0,0 +1,150 @@
+package com.siemens.internship.cluster;
+
+import com.siemens.internship.ItemRepository;
+import com.siemens.internship.ProcessingMode;
+import com.siemens.internship.RetryPolicy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Splits processing work between instances sharing the database.
+ * A processing run opens a {@link Claim} and takes its items chunk by chunk: every chunk is selected with
+ * {@code FOR UPDATE SKIP LOCKED}, so concurrent claims never block on or pick the same rows, and then leased
+ * to the run by setting the lease columns of {@link com.siemens.internship.Item}. The leases are renewed by a
+ * heartbeat while the run is alive and cleared when the items are processed. Leases of a crashed node simply
+ * expire, after which the items are claimable again.
+ */
+@Component
+public class ItemLeaseManager {
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryPolicy retryPolicy;
+    private final ItemClusterProperties properties;
+    private final Set<String> activeOwners = ConcurrentHashMap.newKeySet();
+
+    public ItemLeaseManager(ItemRepository itemRepository,
+                            TransactionTemplate transactionTemplate,
+                            RetryPolicy retryPolicy,
+                            ItemClusterProperties properties) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retryPolicy = retryPolicy;
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Starts claiming the items selected by {@code mode}. The claim must be closed when the run ends.
+     */
+    public Claim open(ProcessingMode mode) {
+        return open(mode == ProcessingMode.INCREMENTAL ? Instant.EPOCH : Instant.now());
+    }
+
+    /**
+     * Starts claiming the items not processed since {@code processedBefore}, e.g. since a job was submitted,
+     * so that a resumed run skips the items it already processed. The claim must be closed when the run ends.
+     */
+    public Claim open(Instant processedBefore) {
+        // one owner per run, so that two runs on the same node do not share leases either
+        Claim claim = new Claim(properties.getNodeId() + "/" + UUID.randomUUID(), processedBefore);
+        activeOwners.add(claim.owner);
+        return claim;
+    }
+
+    /**
+     * Extends the leases of all runs still open on this node; the heartbeat, see {@link ItemClusterConfiguration}.
+     */
+    public void renewLeases() {
+        if (activeOwners.isEmpty()) {
+            return;
+        }
+        Instant expiresAt = Instant.now().plus(properties.getLeaseDuration());
+        transactionTemplate.executeWithoutResult(status ->
+                itemRepository.renewLeases(List.copyOf(activeOwners), expiresAt));
+    }
+
+    /**
+     * The items claimed by one processing run. Not thread-safe; meant to be used by the thread walking the items.
+     */
+    public final class Claim implements AutoCloseable {
+
+        private final String owner;
+        // FULL: items processed after the run started are done. INCREMENTAL: only never processed items count
+        private final Instant processedBefore;
+        private long afterId;
+
+        private Claim(String owner, Instant processedBefore) {
+            this.owner = owner;
+            this.processedBefore = processedBefore;
+        }
+
+        /**
+         * The lease owner written to the claimed items.
+         */
+        public String owner() {
+            return owner;
+        }
+
+        /**
+         * Leases the next chunk of at most {@code limit} ids to this run and returns them in ascending order.
+         * Once every claimable item has been handed out, waits while other nodes still hold leases on
+         * unprocessed items, so that the items of a node crashing meanwhile are taken over when its leases
+         * expire. Returns an empty list when nothing is left.
+         */
+        public List<Long> next(int limit) throws InterruptedException {
+            while (true) {
+                Instant now = Instant.now();
+                List<Long> candidates = new ArrayList<>();
+                // claims of different nodes may still deadlock with each other's chunk transactions
+                List<Long> ids = retryPolicy.execute(() -> transactionTemplate.execute(status -> {
+                    candidates.clear();
+                    candidates.addAll(itemRepository.lockClaimableIdsAfter(afterId, processedBefore, now, limit));
+                    if (candidates.isEmpty()
+                            || itemRepository.lease(candidates, owner, processedBefore, now,
+                            now.plus(properties.getLeaseDuration())) == 0) {
+                        return List.<Long>of();
+                    }
+                    return itemRepository.lockLeasedIds(candidates, owner);
+                }));
+                if (!candidates.isEmpty()) {
+                    // candidates taken by another node in the meantime are simply skipped
+                    afterId = candidates.get(candidates.size() - 1);
+                    if (ids.isEmpty()) {
+                        continue;
+                    }
+                    return ids;
+                }
+                if (afterId > 0) {
+                    // rows skipped while locked, or released since, may be behind the cursor
+                    afterId = 0;
+                    continue;
+                }
+                if (itemRepository.countLeasedByOthers(owner, processedBefore, now) == 0) {
+                    return List.of();
+                }
+                Thread.sleep(properties.getHeartbeatInterval().toMillis());
+            }
+        }
+
+        /**
+         * Stops the heartbeat and releases the items claimed but not processed, so other nodes can take them
+         * right away instead of waiting for the leases to expire.
+         */
+        @Override
+        public void close() {
+            activeOwners.remove(owner);
+            transactionTemplate.executeWithoutResult(status -> itemRepository.releaseLeases(owner));
+        }
+    }
+}
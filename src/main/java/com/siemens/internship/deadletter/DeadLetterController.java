@@ -0,0 +1,35 @@
+package com.siemens.internship.deadletter;
+
+import com.siemens.internship.exception.ItemValidationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/items/dead-letters")
+public class DeadLetterController {
+
+    static final int MAX_LIMIT = 1000;
+
+    private final DeadLetterStore deadLetterStore;
+
+    public DeadLetterController(DeadLetterStore deadLetterStore) {
+        this.deadLetterStore = deadLetterStore;
+    }
+
+    /**
+     * Dead-letter entries in the order they were written, keyset-paginated by entry id.
+     */
+    @GetMapping
+    public ResponseEntity<List<DeadLetterItem>> getDeadLetters(@RequestParam(defaultValue = "0") long afterId,
+                                                               @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ItemValidationException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(deadLetterStore.findPage(afterId, limit));
+    }
+}
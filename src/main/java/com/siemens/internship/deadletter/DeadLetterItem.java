@@ -0,0 +1,57 @@
+package com.siemens.internship.deadletter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * An item that processing gave up on, with the reason. The item itself stays unprocessed,
+ * so an incremental run picks it up again once the cause has been fixed. There is one entry per item and stage,
+ * updated with the latest failure each time the item is given up on again.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_dead_letter_item_item_id_stage", columnNames = {"itemId", "stage"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class DeadLetterItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dead_letter_item_seq")
+    @SequenceGenerator(name = "dead_letter_item_seq", sequenceName = "dead_letter_item_seq", allocationSize = 50)
+    private Long id;
+
+    private Long itemId;
+
+    // processing step that failed, e.g. per-item or one of the pipeline stages
+    private String stage;
+
+    // summed over every time the item was given up on in this stage
+    private int attempts;
+
+    // class of the most specific cause
+    private String error;
+
+    @Column(length = DeadLetterStore.MAX_REASON_LENGTH)
+    private String reason;
+
+    private Instant failedAt;
+
+    public DeadLetterItem(Long itemId, String stage, int attempts, String error, String reason, Instant failedAt) {
+        this.itemId = itemId;
+        this.stage = stage;
+        this.attempts = attempts;
+        this.error = error;
+        this.reason = reason;
+        this.failedAt = failedAt;
+    }
+}
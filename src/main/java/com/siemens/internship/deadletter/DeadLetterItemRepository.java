@@ -0,0 +1,18 @@
+package com.siemens.internship.deadletter;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface DeadLetterItemRepository extends JpaRepository<DeadLetterItem, Long> {
+
+    @Query("SELECT d FROM DeadLetterItem d WHERE d.id > :afterId ORDER BY d.id")
+    List<DeadLetterItem> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT d FROM DeadLetterItem d WHERE d.stage = :stage AND d.itemId IN :itemIds")
+    List<DeadLetterItem> findByStage(@Param("stage") String stage, @Param("itemIds") Collection<Long> itemIds);
+}
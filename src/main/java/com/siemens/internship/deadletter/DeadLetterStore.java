@@ -0,0 +1,80 @@
+package com.siemens.internship.deadletter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Parks items that keep failing, so that one bad row costs one dead-letter entry instead of a failed run.
+ */
+@Service
+public class DeadLetterStore {
+
+    static final int MAX_REASON_LENGTH = 1000;
+
+    private final DeadLetterItemRepository repository;
+    private final Counter deadLettered;
+
+    public DeadLetterStore(DeadLetterItemRepository repository, MeterRegistry registry) {
+        this.repository = repository;
+        this.deadLettered = Counter.builder("item.processing.dead.letters")
+                .description("Items given up by processing and written to the dead-letter table")
+                .register(registry);
+    }
+
+    /**
+     * Records that processing gave up on an item. Commits on its own, independently of the failed work.
+     * An item already dead-lettered in {@code stage} keeps its entry, which adds the attempts and takes the new error.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public DeadLetterItem record(Long itemId, String stage, int attempts, Throwable error) {
+        return recordAll(List.of(itemId), stage, attempts, error).get(0);
+    }
+
+    /**
+     * Same as {@link #record(Long, String, int, Throwable)} for items that failed together, e.g. one batch.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<DeadLetterItem> recordAll(Collection<Long> itemIds, String stage, int attempts, Throwable error) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(error);
+        String reason = cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+        if (reason.length() > MAX_REASON_LENGTH) {
+            reason = reason.substring(0, MAX_REASON_LENGTH);
+        }
+        Instant now = Instant.now();
+        Map<Long, DeadLetterItem> existing = repository.findByStage(stage, itemIds).stream()
+                .collect(Collectors.toMap(DeadLetterItem::getItemId, Function.identity()));
+        List<DeadLetterItem> entries = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            DeadLetterItem entry = existing.get(itemId);
+            if (entry == null) {
+                entries.add(new DeadLetterItem(itemId, stage, attempts, cause.getClass().getName(), reason, now));
+                continue;
+            }
+            entry.setAttempts(entry.getAttempts() + attempts);
+            entry.setError(cause.getClass().getName());
+            entry.setReason(reason);
+            entry.setFailedAt(now);
+            entries.add(entry);
+        }
+        List<DeadLetterItem> saved = repository.saveAll(entries);
+        deadLettered.increment(saved.size());
+        return saved;
+    }
+
+    public List<DeadLetterItem> findPage(long afterId, int limit) {
+        return repository.findPageAfter(afterId, Limit.of(limit));
+    }
+}
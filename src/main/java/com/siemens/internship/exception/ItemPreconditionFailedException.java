@@ -0,0 +1,7 @@
+package com.siemens.internship.exception;
+
+public class ItemPreconditionFailedException extends RuntimeException {
+    public ItemPreconditionFailedException(String message) {
+        super(message);
+    }
+}
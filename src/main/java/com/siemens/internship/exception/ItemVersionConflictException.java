@@ -0,0 +1,7 @@
+package com.siemens.internship.exception;
+
+public class ItemVersionConflictException extends RuntimeException {
+    public ItemVersionConflictException(Long id, Long expectedVersion) {
+        super("Item " + id + " was modified concurrently, expected version " + expectedVersion);
+    }
+}
@@ -0,0 +1,7 @@
+package com.siemens.internship.exception;
+
+public class ProcessingJobNotFoundException extends RuntimeException {
+    public ProcessingJobNotFoundException(Long id) {
+        super("Processing job not found with id: " + id);
+    }
+}
@@ -0,0 +1,16 @@
+package com.siemens.internship.job;
+
+/**
+ * Lifecycle of a {@link ProcessingJob}.
+ */
+public enum JobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isActive() {
+        return this == PENDING || this == RUNNING;
+    }
+}
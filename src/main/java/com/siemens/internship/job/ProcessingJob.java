@@ -0,0 +1,43 @@
+package com.siemens.internship.job;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A background processing run. Persisted so that progress survives a restart of the node executing it.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProcessingJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private JobStatus status;
+
+    private long processedCount;
+    private int chunkCount;
+
+    @Column(length = 2000)
+    private String failure;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    // the service instance running the job and its last sign of life, see ProcessingJobService
+    private String owner;
+    private Instant heartbeatAt;
+}
@@ -0,0 +1,48 @@
+package com.siemens.internship.job;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Checkpoint of one chunk of a {@link ProcessingJob}: the id range it covers and whether it was committed.
+ * A chunk is recorded as {@code PENDING} before it is dispatched and flipped to {@code DONE} in the same
+ * transaction that updates its items, so after a crash only the pending ranges have to be replayed.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_job_chunk_job", columnList = "jobId"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProcessingJobChunk {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    private Long jobId;
+    private Long firstId;
+    private Long lastId;
+
+    @Enumerated(EnumType.STRING)
+    private ChunkStatus status;
+
+    public ProcessingJobChunk(Long jobId, Long firstId, Long lastId) {
+        this.jobId = jobId;
+        this.firstId = firstId;
+        this.lastId = lastId;
+        this.status = ChunkStatus.PENDING;
+    }
+
+    public enum ChunkStatus {
+        PENDING,
+        DONE
+    }
+}
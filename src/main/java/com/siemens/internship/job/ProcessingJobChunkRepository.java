@@ -0,0 +1,25 @@
+package com.siemens.internship.job;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ProcessingJobChunkRepository extends JpaRepository<ProcessingJobChunk, Long> {
+
+    List<ProcessingJobChunk> findByJobIdAndStatusOrderByFirstId(Long jobId, ProcessingJobChunk.ChunkStatus status);
+
+    /**
+     * Highest id already handed out to a chunk of the job; the walk resumes after it.
+     */
+    @Query("SELECT MAX(c.lastId) FROM ProcessingJobChunk c WHERE c.jobId = :jobId")
+    Long findLastDispatchedId(@Param("jobId") Long jobId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJobChunk c SET c.status = 'DONE' WHERE c.id = :id")
+    int markDone(@Param("id") Long id);
+}
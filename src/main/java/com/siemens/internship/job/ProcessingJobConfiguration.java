@@ -0,0 +1,28 @@
+package com.siemens.internship.job;
+
+import com.siemens.internship.cluster.ItemClusterProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Schedules the job heartbeat of {@link ProcessingJobService} every {@code item.cluster.heartbeat-interval}.
+ */
+@Configuration
+@EnableScheduling
+public class ProcessingJobConfiguration implements SchedulingConfigurer {
+
+    private final ProcessingJobService jobService;
+    private final ItemClusterProperties properties;
+
+    public ProcessingJobConfiguration(ProcessingJobService jobService, ItemClusterProperties properties) {
+        this.jobService = jobService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(jobService::heartbeat, properties.getHeartbeatInterval());
+    }
+}
@@ -0,0 +1,41 @@
+package com.siemens.internship.job;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/items/process/jobs")
+public class ProcessingJobController {
+
+    private final ProcessingJobService jobService;
+
+    public ProcessingJobController(ProcessingJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /**
+     * Starts a background processing job and returns immediately; poll the Location for progress.
+     */
+    @PostMapping
+    public ResponseEntity<ProcessingJob> submitJob() {
+        ProcessingJob job = jobService.submit();
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ProcessingJob> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(jobService.findById(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ProcessingJob> cancelJob(@PathVariable Long id) {
+        return ResponseEntity.ok(jobService.cancel(id));
+    }
+}
@@ -0,0 +1,70 @@
+package com.siemens.internship.job;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProcessingJobRepository extends JpaRepository<ProcessingJob, Long> {
+
+    /**
+     * Jobs that may be started: pending ones, and running ones whose owner sent no heartbeat since {@code staleBefore}.
+     */
+    @Query("SELECT j FROM ProcessingJob j WHERE j.status = 'PENDING' OR (j.status = 'RUNNING' "
+            + "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)) ORDER BY j.id")
+    List<ProcessingJob> findStartable(@Param("staleBefore") Instant staleBefore);
+
+    boolean existsByIdAndStatusAndOwner(Long id, JobStatus status, String owner);
+
+    /**
+     * Makes {@code owner} run the job if it is pending, or running under an owner that sent no heartbeat since
+     * {@code staleBefore}. Of several instances starting the same job, only one succeeds.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.status = 'RUNNING', j.owner = :owner, j.heartbeatAt = :now, j.updatedAt = :now "
+            + "WHERE j.id = :id AND (j.status = 'PENDING' OR (j.status = 'RUNNING' "
+            + "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)))")
+    int start(@Param("id") Long id, @Param("owner") String owner, @Param("now") Instant now,
+              @Param("staleBefore") Instant staleBefore);
+
+    /**
+     * Ends a running job, unless it has been cancelled or taken over by another owner in the meantime.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.status = :to, j.failure = :failure, j.updatedAt = :now "
+            + "WHERE j.id = :id AND j.status = 'RUNNING' AND j.owner = :owner")
+    int finish(@Param("id") Long id, @Param("owner") String owner, @Param("to") JobStatus to,
+               @Param("failure") String failure, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.heartbeatAt = :now WHERE j.owner = :owner AND j.status = 'RUNNING'")
+    int renewHeartbeats(@Param("owner") String owner, @Param("now") Instant now);
+
+    /**
+     * Moves the job to {@code to} only if it is currently in one of the {@code from} states,
+     * so a concurrent cancel can never be overwritten by the runner (and vice versa).
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.status = :to, j.failure = :failure, j.updatedAt = :now "
+            + "WHERE j.id = :id AND j.status IN :from")
+    int transition(@Param("id") Long id, @Param("from") Collection<JobStatus> from, @Param("to") JobStatus to,
+                   @Param("failure") String failure, @Param("now") Instant now);
+
+    /**
+     * Adds a committed chunk to the job counters; runs inside the chunk transaction.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.processedCount = j.processedCount + :count, "
+            + "j.chunkCount = j.chunkCount + 1, j.updatedAt = :now WHERE j.id = :id")
+    int addChunk(@Param("id") Long id, @Param("count") long count, @Param("now") Instant now);
+}
@@ -0,0 +1,237 @@
+package com.siemens.internship.job;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemBatchProcessor;
+import com.siemens.internship.ItemRepository;
+import com.siemens.internship.cluster.ItemClusterProperties;
+import com.siemens.internship.cluster.ItemLeaseManager;
+import com.siemens.internship.exception.ProcessingJobNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs item processing as durable background jobs.
+ * Every dispatched chunk is checkpointed in {@link ProcessingJobChunk}, and chunk completion is committed together
+ * with the item updates. A job interrupted by a restart therefore resumes from its last dispatched chunk
+ * (replaying only the chunks that never committed) instead of reprocessing the whole table.
+ * Jobs are executed one at a time, each one using the chunk parallelism of {@link ItemBatchProcessor}.
+ * <p>
+ * A running job records its owner, this service instance, and a heartbeat renewed every
+ * {@code item.cluster.heartbeat-interval}. Only one instance can start a job, and a running job is only resumed
+ * elsewhere once its heartbeat is older than {@code item.cluster.lease-duration}, i.e. its owner has stopped.
+ * Without {@code item.cluster.enabled} there is a single instance, so the jobs still running when it stopped
+ * are resumed on startup. With it, instances also take over stale jobs while running, and a job claims its
+ * chunks through the {@link ItemLeaseManager}: the items processed since the job was submitted are skipped,
+ * which replaces the replay of pending chunks.
+ */
+@Service
+public class ProcessingJobService {
+
+    private static final Set<JobStatus> ACTIVE = EnumSet.of(JobStatus.PENDING, JobStatus.RUNNING);
+    private static final int MAX_FAILURE_LENGTH = 2000;
+
+    private final ProcessingJobRepository jobRepository;
+    private final ProcessingJobChunkRepository chunkRepository;
+    private final ItemRepository itemRepository;
+    private final ItemBatchProcessor batchProcessor;
+    private final ItemLeaseManager leaseManager;
+    private final ItemClusterProperties clusterProperties;
+    // a restarted instance is a new owner: the jobs of its predecessor are resumed like those of any stopped node
+    private final String owner;
+    // jobs queued or running here, so that they are not queued twice
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor();
+
+    public ProcessingJobService(ProcessingJobRepository jobRepository,
+                                ProcessingJobChunkRepository chunkRepository,
+                                ItemRepository itemRepository,
+                                ItemBatchProcessor batchProcessor,
+                                ItemLeaseManager leaseManager,
+                                ItemClusterProperties clusterProperties) {
+        this.jobRepository = jobRepository;
+        this.chunkRepository = chunkRepository;
+        this.itemRepository = itemRepository;
+        this.batchProcessor = batchProcessor;
+        this.leaseManager = leaseManager;
+        this.clusterProperties = clusterProperties;
+        this.owner = clusterProperties.getNodeId() + "/" + UUID.randomUUID();
+    }
+
+    public ProcessingJob submit() {
+        ProcessingJob job = new ProcessingJob();
+        job.setStatus(JobStatus.PENDING);
+        job.setCreatedAt(Instant.now());
+        job.setUpdatedAt(job.getCreatedAt());
+        job = jobRepository.save(job);
+
+        schedule(job.getId());
+        return job;
+    }
+
+    public ProcessingJob findById(Long id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new ProcessingJobNotFoundException(id));
+    }
+
+    /**
+     * Cancels an active job; the runner notices it before dispatching the next chunk.
+     * Finished jobs are returned unchanged.
+     */
+    public ProcessingJob cancel(Long id) {
+        findById(id);
+        jobRepository.transition(id, ACTIVE, JobStatus.CANCELLED, null, Instant.now());
+        return findById(id);
+    }
+
+    /**
+     * Picks up the pending jobs and the running jobs whose owner has stopped, see the class comment.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (ProcessingJob job : jobRepository.findStartable(staleBefore(Instant.now()))) {
+            schedule(job.getId());
+        }
+    }
+
+    /**
+     * Renews the heartbeat of the jobs running here and, in cluster mode, takes over the jobs of stopped instances.
+     * Called every {@code item.cluster.heartbeat-interval}, see {@link ProcessingJobConfiguration}.
+     */
+    public void heartbeat() {
+        if (!scheduled.isEmpty()) {
+            jobRepository.renewHeartbeats(owner, Instant.now());
+        }
+        if (clusterProperties.isEnabled()) {
+            resumeInterruptedJobs();
+        }
+    }
+
+    private void schedule(Long jobId) {
+        if (!scheduled.add(jobId)) {
+            return;
+        }
+        try {
+            jobExecutor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    scheduled.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // shutting down, another instance or the next start picks the job up
+            scheduled.remove(jobId);
+        }
+    }
+
+    /**
+     * Heartbeats older than this mean the owner has stopped. A single instance is the only possible owner,
+     * so any job it did not start itself is stale.
+     */
+    private Instant staleBefore(Instant now) {
+        return clusterProperties.isEnabled() ? now.minus(clusterProperties.getLeaseDuration()) : now;
+    }
+
+    void run(Long jobId) {
+        Instant now = Instant.now();
+        if (jobRepository.start(jobId, owner, now, staleBefore(now)) == 0) {
+            return; // cancelled or finished, or running on another instance that is still alive
+        }
+
+        try {
+            if (leaseManager.isEnabled()) {
+                try (ItemLeaseManager.Claim claim = leaseManager.open(findById(jobId).getCreatedAt())) {
+                    batchProcessor.processAll(claim, new CheckpointingListener(jobId));
+                }
+            } else {
+                replayPendingChunks(jobId);
+
+                Long lastDispatchedId = chunkRepository.findLastDispatchedId(jobId);
+                batchProcessor.processAll(lastDispatchedId == null ? 0L : lastDispatchedId, new CheckpointingListener(jobId));
+            }
+
+            jobRepository.finish(jobId, owner, JobStatus.COMPLETED, null, Instant.now());
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            String failure = String.valueOf(cause.getMessage());
+            jobRepository.finish(jobId, owner, JobStatus.FAILED,
+                    failure.substring(0, Math.min(failure.length(), MAX_FAILURE_LENGTH)), Instant.now());
+        }
+    }
+
+    /**
+     * Re-runs the chunks that were dispatched but never committed before the previous run stopped.
+     */
+    private void replayPendingChunks(Long jobId) {
+        List<ProcessingJobChunk> pending =
+                chunkRepository.findByJobIdAndStatusOrderByFirstId(jobId, ProcessingJobChunk.ChunkStatus.PENDING);
+        for (ProcessingJobChunk chunk : pending) {
+            if (!isOwned(jobId)) {
+                return;
+            }
+            List<Long> ids = itemRepository.findIdsBetween(chunk.getFirstId(), chunk.getLastId());
+            if (ids.isEmpty()) {
+                chunkRepository.markDone(chunk.getId());
+            } else {
+                batchProcessor.processChunk(ids, (chunkIds, items) -> checkpoint(jobId, chunk.getId(), items.size()));
+            }
+        }
+    }
+
+    /**
+     * Whether the job is still running here, i.e. neither cancelled nor taken over by another instance.
+     */
+    private boolean isOwned(Long jobId) {
+        return jobRepository.existsByIdAndStatusAndOwner(jobId, JobStatus.RUNNING, owner);
+    }
+
+    private void checkpoint(Long jobId, Long chunkId, int processed) {
+        chunkRepository.markDone(chunkId);
+        jobRepository.addChunk(jobId, processed, Instant.now());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // interrupted chunks roll back and stay PENDING, the next start replays them
+        jobExecutor.shutdownNow();
+    }
+
+    private class CheckpointingListener implements ItemBatchProcessor.ChunkListener {
+
+        private final Long jobId;
+        private final Map<Long, Long> chunkIdsByFirstItem = new ConcurrentHashMap<>();
+
+        CheckpointingListener(Long jobId) {
+            this.jobId = jobId;
+        }
+
+        @Override
+        public boolean beforeChunk(List<Long> ids) {
+            if (!isOwned(jobId)) {
+                return false;
+            }
+            ProcessingJobChunk chunk = chunkRepository.save(
+                    new ProcessingJobChunk(jobId, ids.get(0), ids.get(ids.size() - 1)));
+            chunkIdsByFirstItem.put(ids.get(0), chunk.getId());
+            return true;
+        }
+
+        @Override
+        public void inTransaction(List<Long> ids, List<Item> items) {
+            checkpoint(jobId, chunkIdsByFirstItem.remove(ids.get(0)), items.size());
+        }
+    }
+}
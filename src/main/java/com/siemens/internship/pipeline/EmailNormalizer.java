@@ -0,0 +1,25 @@
+package com.siemens.internship.pipeline;
+
+import com.siemens.internship.Item;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Trims and lower-cases email addresses so that lookups by email match regardless of how they were entered.
+ * The local part is case-sensitive in theory, but no mail provider treats it that way.
+ */
+@Component
+@Order(200)
+public class EmailNormalizer implements ItemProcessor {
+
+    @Override
+    public void process(Item item) {
+        String email = item.getEmail();
+        if (email != null) {
+            email = email.strip();
+            item.setEmail(email.isEmpty() ? null : email.toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.siemens.internship.pipeline;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemCache;
+import com.siemens.internship.ItemRepository;
+import com.siemens.internship.ProcessingMode;
+import com.siemens.internship.RetryPolicy;
+import com.siemens.internship.change.ItemChangeLog;
+import com.siemens.internship.change.ItemChangeType;
+import com.siemens.internship.cluster.ItemLeaseManager;
+import com.siemens.internship.deadletter.DeadLetterStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Staged processing engine: fetch (load items by id), transform (run the {@link ItemProcessorChain})
+ * and persist (write the results, one transaction per batch).
+ * Every stage has its own thread pool, batch size and bounded input queue, see {@link ItemPipelineProperties},
+ * so the I/O-bound stages and the CPU-bound one are scaled independently. The pools belong to a single run:
+ * workers of concurrent runs sharing a pool could each wait for a stage whose workers are queued behind
+ * the other's. A full queue blocks the stage feeding it, which bounds the memory of a run by the queue
+ * capacities rather than by the table size.
+ * <p>
+ * Failures are isolated per item: transient database errors are retried with backoff (see {@link RetryPolicy}),
+ * and items that still fail are dead-lettered while the rest of the run goes on.
+ * <p>
+ * With {@code item.cluster.enabled} the ids are claimed through the {@link ItemLeaseManager} instead of walked,
+ * so that instances sharing the database split the items, and only items still leased to the run are written.
+ * <p>
+ * Every batch is timed as {@code item.pipeline.stage.duration} tagged with the stage, and each run reports
+ * the busy and blocked time of every stage in its {@link PipelineSummary}.
+ */
+@Component
+public class ItemPipeline {
+
+    static final String FETCH = "fetch";
+    static final String TRANSFORM = "transform";
+    static final String PERSIST = "persist";
+
+    // how often idle workers check whether their input is exhausted or the run has failed
+    private static final long POLL_MILLIS = 20;
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemProcessorChain processors;
+    private final ItemCache itemCache;
+    private final ItemChangeLog changeLog;
+    private final RetryPolicy retryPolicy;
+    private final DeadLetterStore deadLetterStore;
+    private final ItemLeaseManager leaseManager;
+    private final ItemPipelineProperties properties;
+    private final Map<String, Timer> timers;
+    private final Set<Run> runs = ConcurrentHashMap.newKeySet();
+
+    public ItemPipeline(ItemRepository itemRepository,
+                        TransactionTemplate transactionTemplate,
+                        ItemProcessorChain processors,
+                        ItemCache itemCache,
+                        ItemChangeLog changeLog,
+                        RetryPolicy retryPolicy,
+                        DeadLetterStore deadLetterStore,
+                        ItemLeaseManager leaseManager,
+                        ItemPipelineProperties properties,
+                        MeterRegistry registry) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.processors = processors;
+        this.itemCache = itemCache;
+        this.changeLog = changeLog;
+        this.retryPolicy = retryPolicy;
+        this.deadLetterStore = deadLetterStore;
+        this.leaseManager = leaseManager;
+        this.properties = properties;
+        this.timers = List.of(FETCH, TRANSFORM, PERSIST).stream().collect(Collectors.toUnmodifiableMap(Function.identity(), stage ->
+                Timer.builder("item.pipeline.stage.duration")
+                        .description("Time for one pipeline stage to handle a batch")
+                        .tag("stage", stage)
+                        .register(registry)));
+    }
+
+    /**
+     * Runs every item selected by {@code mode} through the pipeline and blocks until all of them are written.
+     * Failing items are dead-lettered and counted in the summary. Only a failure of the run itself, e.g. of the
+     * dead-letter store, stops the run and is rethrown; batches already persisted stay committed.
+     *
+     * @param listener receives the items of each committed batch; called concurrently, so it must be thread-safe
+     */
+    public PipelineSummary run(ProcessingMode mode, Consumer<List<Item>> listener) {
+        if (leaseManager.isEnabled()) {
+            // the ids come from the claim instead of the id walk, so other nodes get the rest
+            try (ItemLeaseManager.Claim claim = leaseManager.open(mode)) {
+                return run(afterId -> claim.next(properties.getFetch().getBatchSize()), claim.owner(), listener);
+            }
+        }
+        return run(afterId -> nextIds(mode, afterId), null, listener);
+    }
+
+    private PipelineSummary run(IdSource source, String owner, Consumer<List<Item>> listener) {
+        Run run = new Run(owner, listener);
+        runs.add(run);
+        try {
+            return run.execute(source);
+        } finally {
+            runs.remove(run);
+            run.shutdown();
+        }
+    }
+
+    private List<Long> nextIds(ProcessingMode mode, long afterId) {
+        Limit limit = Limit.of(properties.getFetch().getBatchSize());
+        return mode == ProcessingMode.INCREMENTAL
+                ? itemRepository.findUnprocessedIdsAfter(afterId, limit)
+                : itemRepository.findIdsAfter(afterId, limit);
+    }
+
+    /**
+     * Writes the transformed items, unless the row changed since it was fetched: overwriting it would lose
+     * the concurrent write, and leaving it alone keeps it due for processing. With a non-null {@code owner}
+     * items no longer leased to it are left alone as well, another node has taken them over.
+     */
+    private List<Item> write(List<Item> items, String owner) {
+        Instant now = Instant.now();
+        List<Item> persisted = transactionTemplate.execute(status -> {
+            Map<Long, Item> current = itemRepository.findAllById(items.stream().map(Item::getId).toList()).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            List<Item> written = new ArrayList<>(items.size());
+            for (Item item : items) {
+                Item managed = current.get(item.getId());
+                if (managed == null || !Objects.equals(managed.getVersion(), item.getVersion())
+                        || owner != null && !owner.equals(managed.getLeaseOwner())) {
+                    continue;
+                }
+                managed.setName(item.getName());
+                managed.setDescription(item.getDescription());
+                managed.setEmail(item.getEmail());
+                managed.markProcessed(now);
+                written.add(managed);
+            }
+            // flush the batched UPDATEs first, so the change records carry the new versions
+            itemRepository.flush();
+            changeLog.recordAll(ItemChangeType.PROCESSED, written);
+            return written;
+        });
+        itemCache.evictAll(items.stream().map(Item::getId).toList());
+        return persisted;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runs.forEach(Run::shutdown);
+    }
+
+    /**
+     * State of one run: the stage queues, pools and workers, and the first failure.
+     */
+    private final class Run {
+
+        // the lease owner in cluster mode, otherwise null
+        private final String owner;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final Stage<Long, Item> fetch;
+        private final Stage<Item, Item> transform;
+        private final Stage<Item, Void> persist;
+        private final CountDownLatch workers;
+        private final Map<String, ExecutorService> executors;
+
+        Run(String owner, Consumer<List<Item>> listener) {
+            this.owner = owner;
+            this.persist = new Stage<>(PERSIST, properties.getPersist(), null, items -> {
+                List<Item> written = persist(items);
+                processed.add(written.size());
+                listener.accept(written);
+                return List.of();
+            });
+            this.transform = new Stage<>(TRANSFORM, properties.getTransform(), persist, this::transform);
+            this.fetch = new Stage<>(FETCH, properties.getFetch(), transform, this::fetch);
+            this.workers = new CountDownLatch(fetch.parallelism + transform.parallelism + persist.parallelism);
+            this.executors = List.of(fetch, transform, persist).stream().collect(Collectors.toUnmodifiableMap(
+                    stage -> stage.name,
+                    stage -> Executors.newFixedThreadPool(stage.parallelism,
+                            new CustomizableThreadFactory("item-pipeline-" + stage.name + "-"))));
+        }
+
+        PipelineSummary execute(IdSource source) {
+            long start = System.nanoTime();
+            persist.start();
+            transform.start();
+            fetch.start();
+
+            // the calling thread walks the ids and feeds them to the first stage
+            try {
+                long afterId = 0L;
+                List<Long> ids;
+                while (failure.get() == null && !(ids = source.next(afterId)).isEmpty()) {
+                    for (Long id : ids) {
+                        fetch.put(id);
+                    }
+                    afterId = ids.get(ids.size() - 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            } catch (RuntimeException e) {
+                fail(e);
+            } finally {
+                fetch.close();
+            }
+
+            try {
+                workers.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+            if (failure.get() != null) {
+                throw new CompletionException(failure.get());
+            }
+            return new PipelineSummary(processed.sum(), skipped.sum(), failed.sum(), (System.nanoTime() - start) / 1_000_000,
+                    List.of(fetch.summary(), transform.summary(), persist.summary()));
+        }
+
+        private void fail(Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+
+        // the workers have exited unless the run was interrupted, in which case they are interrupted too
+        void shutdown() {
+            executors.values().forEach(ExecutorService::shutdownNow);
+        }
+
+        private List<Item> fetch(List<Long> ids) throws InterruptedException {
+            try {
+                return retryPolicy.execute(() -> itemRepository.findAllById(ids));
+            } catch (RetryPolicy.Failure e) {
+                deadLetterStore.recordAll(ids, FETCH, e.getAttempts(), e.getCause());
+                failed.add(ids.size());
+                return List.of();
+            }
+        }
+
+        private List<Item> transform(List<Item> items) {
+            List<Item> transformed = new ArrayList<>(items.size());
+            for (Item item : items) {
+                try {
+                    transformed.add(processors.apply(item));
+                } catch (RuntimeException e) {
+                    // processors do no I/O, so there is nothing to retry
+                    deadLetterStore.record(item.getId(), TRANSFORM, 1, e);
+                    failed.increment();
+                }
+            }
+            return transformed;
+        }
+
+        /**
+         * Writes a batch, retrying transient errors. A batch failing for another reason is usually held up by a
+         * single bad row, so it is written again item by item and only the failing items are dead-lettered.
+         */
+        private List<Item> persist(List<Item> items) throws InterruptedException {
+            try {
+                List<Item> written = retryPolicy.execute(() -> write(items, owner));
+                skipped.add(items.size() - written.size());
+                return written;
+            } catch (RetryPolicy.Failure e) {
+                if (items.size() == 1 || e.isTransient()) {
+                    deadLetterStore.recordAll(items.stream().map(Item::getId).toList(), PERSIST, e.getAttempts(), e.getCause());
+                    failed.add(items.size());
+                    return List.of();
+                }
+                List<Item> written = new ArrayList<>(items.size());
+                for (Item item : items) {
+                    written.addAll(persist(List.of(item)));
+                }
+                return written;
+            }
+        }
+
+        /**
+         * A bounded queue drained in batches by {@code parallelism} workers, which hand their output to the next stage.
+         */
+        private final class Stage<I, O> {
+
+            private final String name;
+            private final int parallelism;
+            private final int batchSize;
+            private final BlockingQueue<I> queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+            private final Stage<O, ?> next;
+            private final Handler<I, O> handler;
+            private final AtomicInteger running;
+            private final LongAdder batches = new LongAdder();
+            private final LongAdder items = new LongAdder();
+            private final LongAdder busyNanos = new LongAdder();
+            private final LongAdder blockedNanos = new LongAdder();
+            // set once nothing more will be put into the queue
+            private volatile boolean closed;
+
+            Stage(String name, ItemPipelineProperties.Stage settings, Stage<O, ?> next, Handler<I, O> handler) {
+                this.name = name;
+                this.parallelism = settings.getParallelism();
+                this.batchSize = settings.getBatchSize();
+                this.next = next;
+                this.handler = handler;
+                this.running = new AtomicInteger(parallelism);
+            }
+
+            void start() {
+                for (int i = 0; i < parallelism; i++) {
+                    try {
+                        executors.get(name).execute(this::work);
+                    } catch (RejectedExecutionException e) {
+                        fail(e);
+                        exit();
+                    }
+                }
+            }
+
+            void put(I value) throws InterruptedException {
+                while (!queue.offer(value, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (failure.get() != null) {
+                        throw new CancellationException("Pipeline run failed");
+                    }
+                }
+            }
+
+            void close() {
+                closed = true;
+            }
+
+            private void work() {
+                List<I> batch = new ArrayList<>(batchSize);
+                try {
+                    while (failure.get() == null) {
+                        I first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                        if (first == null) {
+                            // closed is read before the queue, so nothing can arrive after this check
+                            if (closed && queue.isEmpty()) {
+                                break;
+                            }
+                            continue;
+                        }
+                        batch.add(first);
+                        queue.drainTo(batch, batchSize - 1);
+
+                        long start = System.nanoTime();
+                        List<O> output = handler.apply(batch);
+                        long busy = System.nanoTime() - start;
+                        timers.get(name).record(busy, TimeUnit.NANOSECONDS);
+                        busyNanos.add(busy);
+                        batches.increment();
+                        items.add(batch.size());
+
+                        if (next != null) {
+                            start = System.nanoTime();
+                            for (O value : output) {
+                                next.put(value);
+                            }
+                            blockedNanos.add(System.nanoTime() - start);
+                        }
+                        // only now: a handler may return its input
+                        batch.clear();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail(e);
+                } catch (Throwable t) {
+                    fail(t);
+                } finally {
+                    exit();
+                }
+            }
+
+            private void exit() {
+                // the last worker out closes the next stage
+                if (running.decrementAndGet() == 0 && next != null) {
+                    next.close();
+                }
+                workers.countDown();
+            }
+
+            PipelineSummary.Stage summary() {
+                return new PipelineSummary.Stage(name, parallelism, batchSize, batches.sum(), items.sum(),
+                        busyNanos.sum() / 1_000_000, blockedNanos.sum() / 1_000_000);
+            }
+        }
+    }
+
+    /**
+     * Supplies the ids of one run batch by batch; an empty batch ends the run.
+     */
+    @FunctionalInterface
+    private interface IdSource {
+
+        /**
+         * Returns the next ids after {@code afterId}, the last id of the previous batch.
+         */
+        List<Long> next(long afterId) throws InterruptedException;
+    }
+
+    /**
+     * The work of a stage: turns one batch of input into the output handed to the next stage.
+     */
+    @FunctionalInterface
+    private interface Handler<I, O> {
+        List<O> apply(List<I> batch) throws InterruptedException;
+    }
+}
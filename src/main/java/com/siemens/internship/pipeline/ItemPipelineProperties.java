@@ -0,0 +1,64 @@
+package com.siemens.internship.pipeline;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Sizing of the {@link ItemPipeline} stages, bound from the {@code item.pipeline.*} properties.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "item.pipeline")
+public class ItemPipelineProperties {
+
+    /**
+     * Capacity of the queue in front of every stage. A full queue blocks the stage feeding it.
+     */
+    @Min(1)
+    private int queueCapacity = 1000;
+
+    /**
+     * Loads items by id. I/O-bound.
+     */
+    @Valid
+    private final Stage fetch = new Stage(2, 200);
+
+    /**
+     * Runs the {@link ItemProcessor} chain. CPU-bound, so one worker per core by default.
+     */
+    @Valid
+    private final Stage transform = new Stage(Runtime.getRuntime().availableProcessors(), 50);
+
+    /**
+     * Writes the processed items, one transaction per batch. I/O-bound.
+     */
+    @Valid
+    private final Stage persist = new Stage(2, 100);
+
+    @Getter
+    @Setter
+    public static class Stage {
+
+        /**
+         * Number of worker threads of the stage.
+         */
+        @Min(1)
+        private int parallelism;
+
+        /**
+         * Maximum number of items a worker takes from the queue at once.
+         */
+        @Min(1)
+        private int batchSize;
+
+        public Stage(int parallelism, int batchSize) {
+            this.parallelism = parallelism;
+            this.batchSize = batchSize;
+        }
+    }
+}
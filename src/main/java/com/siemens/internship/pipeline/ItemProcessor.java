@@ -0,0 +1,25 @@
+package com.siemens.internship.pipeline;
+
+import com.siemens.internship.Item;
+
+/**
+ * One processing step applied to every item, e.g. a normalization or a validation.
+ * Every bean implementing this interface becomes part of the {@link ItemProcessorChain}, in {@code @Order}.
+ * <p>
+ * Steps run concurrently on many items and must therefore be thread-safe. They should be CPU-bound:
+ * loading and writing rows is done by the pipeline around them, see {@link ItemPipeline}.
+ */
+public interface ItemProcessor {
+
+    /**
+     * Name of the step in metrics.
+     */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Changes {@code item} in place. Throwing fails the item.
+     */
+    void process(Item item);
+}
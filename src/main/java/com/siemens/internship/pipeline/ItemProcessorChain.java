@@ -0,0 +1,44 @@
+package com.siemens.internship.pipeline;
+
+import com.siemens.internship.Item;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * All {@link ItemProcessor} beans in order. Each step is timed separately as
+ * {@code item.pipeline.processor.duration} tagged with its name.
+ */
+@Component
+public class ItemProcessorChain {
+
+    private final List<ItemProcessor> processors;
+    private final List<Timer> timers;
+
+    public ItemProcessorChain(List<ItemProcessor> processors, MeterRegistry registry) {
+        this.processors = List.copyOf(processors);
+        this.timers = this.processors.stream()
+                .map(processor -> Timer.builder("item.pipeline.processor.duration")
+                        .description("Time spent in one item processing step")
+                        .tag("processor", processor.name())
+                        .register(registry))
+                .toList();
+    }
+
+    /**
+     * Runs every step on {@code item} and returns it; the first failing step stops the chain.
+     */
+    public Item apply(Item item) {
+        for (int i = 0; i < processors.size(); i++) {
+            ItemProcessor processor = processors.get(i);
+            timers.get(i).record(() -> processor.process(item));
+        }
+        return item;
+    }
+
+    public List<String> names() {
+        return processors.stream().map(ItemProcessor::name).toList();
+    }
+}
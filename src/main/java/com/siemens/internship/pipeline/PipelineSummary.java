@@ -0,0 +1,26 @@
+package com.siemens.internship.pipeline;
+
+import java.util.List;
+
+/**
+ * Outcome of a pipeline run.
+ *
+ * @param processed     number of items written as processed
+ * @param skipped       number of items left alone because they were modified or deleted while in the pipeline
+ * @param failed        number of items given up on and dead-lettered
+ * @param elapsedMillis wall-clock duration of the run
+ * @param stages        time spent in every stage, in pipeline order
+ */
+public record PipelineSummary(long processed, long skipped, long failed, long elapsedMillis, List<Stage> stages) {
+
+    /**
+     * Work done by one stage. A stage whose workers were busy for most of the run is the bottleneck;
+     * a stage that spent its time blocked is waiting for the one after it.
+     *
+     * @param busyMillis    time the workers spent processing batches, summed over all workers
+     * @param blockedMillis time the workers spent waiting for room in the next stage's queue
+     */
+    public record Stage(String name, int parallelism, int batchSize, long batches, long items,
+                        long busyMillis, long blockedMillis) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.siemens.internship.pipeline;
+
+import com.siemens.internship.Item;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * Trims name and description and collapses runs of whitespace; a blank description becomes {@code null}.
+ */
+@Component
+@Order(100)
+public class TextNormalizer implements ItemProcessor {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Override
+    public void process(Item item) {
+        item.setName(normalize(item.getName()));
+        String description = normalize(item.getDescription());
+        item.setDescription(description == null || description.isEmpty() ? null : description);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : WHITESPACE.matcher(value.strip()).replaceAll(" ");
+    }
+}
@@ -0,0 +1,30 @@
+package com.siemens.internship.pipeline;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemValidator;
+import com.siemens.internship.exception.ItemValidationException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks the constraints of {@link Item} with the {@link ItemValidator}. Runs last, so it sees the normalized values.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class ValidatingProcessor implements ItemProcessor {
+
+    private final ItemValidator validator;
+
+    public ValidatingProcessor(ItemValidator validator) {
+        this.validator = validator;
+    }
+
+    @Override
+    public void process(Item item) {
+        int violations = validator.validate(item);
+        if (violations != 0) {
+            throw new ItemValidationException("Item " + item.getId() + " is invalid: " + ItemValidator.describe(violations));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.siemens.internship.startup;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Startup report, bound from the {@code item.startup.*} properties.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "item.startup")
+public class ItemStartupProperties {
+
+    /**
+     * Log a {@link StartupReport} once the application is ready. Only available when started through
+     * {@code InternshipApplication.main}, which records the startup steps.
+     */
+    private boolean report = true;
+
+    /**
+     * Number of phases and beans listed in the report.
+     */
+    @Min(1)
+    private int reportSize = 10;
+}
@@ -0,0 +1,91 @@
+package com.siemens.internship.startup;
+
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Where the startup time went, summarized from the steps recorded by a {@code BufferingApplicationStartup}.
+ * Phases are all steps other than bean instantiation, summed up by name; their durations include nested steps.
+ * Beans are ranked by self time, i.e. without the time spent instantiating their dependencies,
+ * so that a slow bean is not hidden behind the beans that happen to depend on it.
+ *
+ * @param total  time from the start of the application until it was ready
+ * @param phases the slowest phases, slowest first
+ * @param beans  the beans with the highest self time, slowest first
+ */
+public record StartupReport(Duration total, List<Entry> phases, List<Entry> beans) {
+
+    static final String BEAN_INSTANTIATION = "spring.beans.instantiate";
+
+    public record Entry(String name, Duration duration) {
+    }
+
+    public static StartupReport of(StartupTimeline timeline, Duration total, int size) {
+        Map<String, Duration> phases = new HashMap<>();
+        Map<Long, StartupTimeline.TimelineEvent> instantiations = new LinkedHashMap<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            StartupStep step = event.getStartupStep();
+            if (BEAN_INSTANTIATION.equals(step.getName())) {
+                instantiations.put(step.getId(), event);
+            } else {
+                phases.merge(step.getName(), event.getDuration(), Duration::plus);
+            }
+        }
+
+        Map<Long, Duration> selfTimes = new HashMap<>();
+        instantiations.forEach((id, event) -> selfTimes.put(id, event.getDuration()));
+        instantiations.values().forEach(event -> {
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null && instantiations.containsKey(parentId)) {
+                selfTimes.merge(parentId, event.getDuration().negated(), Duration::plus);
+            }
+        });
+
+        List<Entry> beans = instantiations.entrySet().stream()
+                .map(entry -> new Entry(beanName(entry.getValue().getStartupStep()), selfTimes.get(entry.getKey())))
+                .sorted(Comparator.comparing(Entry::duration).reversed())
+                .limit(size)
+                .toList();
+        return new StartupReport(total, slowest(phases, size), beans);
+    }
+
+    private static List<Entry> slowest(Map<String, Duration> durations, int size) {
+        return durations.entrySet().stream()
+                .map(entry -> new Entry(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparing(Entry::duration).reversed())
+                .limit(size)
+                .toList();
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "(unnamed)";
+    }
+
+    /**
+     * Multi-line, human-readable form for the log.
+     */
+    public String format() {
+        return "Started in " + total.toMillis() + " ms"
+                + "\n  Slowest phases (including nested steps):\n" + format(phases)
+                + "\n  Slowest beans (self time):\n" + format(beans);
+    }
+
+    private static String format(List<Entry> entries) {
+        return entries.stream()
+                .map(entry -> String.format("    %6d ms  %s", entry.duration().toMillis(), entry.name()))
+                .collect(Collectors.joining("\n"));
+    }
+}
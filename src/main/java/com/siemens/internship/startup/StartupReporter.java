@@ -0,0 +1,34 @@
+package com.siemens.internship.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs the {@link StartupReport} once the application is ready, so that startup regressions show up in every log.
+ * The full timeline stays available under {@code /actuator/startup}.
+ */
+@Component
+public class StartupReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReporter.class);
+
+    private final ItemStartupProperties properties;
+
+    public StartupReporter(ItemStartupProperties properties) {
+        this.properties = properties;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        // only InternshipApplication.main records the steps, tests and embedded uses don't
+        if (properties.isReport()
+                && event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup
+                && event.getTimeTaken() != null) {
+            log.info(StartupReport.of(startup.getBufferedTimeline(), event.getTimeTaken(), properties.getReportSize()).format());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.siemens.internship.store;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+
+/**
+ * Backend of the {@link ItemStore}, bound from the {@code item.storage.*} properties.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "item.storage")
+public class ItemStorageProperties {
+
+    @NotNull
+    private Type type = Type.JPA;
+
+    /**
+     * Directory of the segment files of the {@code MAPPED} backend, created if missing.
+     */
+    @NotNull
+    private Path directory = Path.of("data", "items");
+
+    /**
+     * Size of one memory-mapped segment file; a new segment is started whenever the current one is full.
+     */
+    @NotNull
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Share of superseded and deleted records in the log above which it is compacted.
+     */
+    @DecimalMin("0.1")
+    @DecimalMax("1.0")
+    private double compactionThreshold = 0.5;
+
+    /**
+     * Force every write to disk before returning. Without it writes survive a crash of the process
+     * but not of the machine, since the operating system flushes the mapped pages on its own schedule.
+     */
+    private boolean syncOnWrite = false;
+
+    public enum Type {
+        /**
+         * The {@code ItemRepository}, i.e. Hibernate over the configured datasource.
+         */
+        JPA,
+        /**
+         * {@link MappedItemStore}: an append-only log of fixed-size records in memory-mapped files.
+         * Not supported by the application yet, startup fails, see {@link ItemStoreConfiguration}.
+         */
+        MAPPED
+    }
+}
@@ -0,0 +1,61 @@
+package com.siemens.internship.store;
+
+import com.siemens.internship.Item;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Access to items by id. The by-id operations of {@code ItemService} and the id scans of per-item processing
+ * go through it, queries over the whole table (listing, search, export, bulk writes, batch and pipeline runs,
+ * jobs, the change feed) go through the {@code ItemRepository}. {@link JpaItemStore} serves both from the same
+ * table. {@link MappedItemStore} implements the contract over a memory-mapped log but cannot be selected yet,
+ * see {@link ItemStoreConfiguration}.
+ */
+public interface ItemStore {
+
+    Optional<Item> findById(Long id);
+
+    boolean existsById(Long id);
+
+    /**
+     * Inserts the item if it has no id, otherwise replaces the stored one.
+     * A non-null version must match the stored version, stale writes fail with an
+     * {@link org.springframework.dao.OptimisticLockingFailureException}.
+     *
+     * @return the stored item, with its id and new version
+     */
+    Item save(Item item);
+
+    /**
+     * Replaces the name, description, status and email of an item and marks it modified at {@code now}.
+     * A {@code null} expected version skips the version check.
+     *
+     * @return the new version, or empty if no item has this id or its version differs
+     */
+    Optional<Long> update(Long id, Item item, Long expectedVersion, Instant now);
+
+    /**
+     * Ids of all stored items, in ascending order.
+     */
+    List<Long> findAllIds();
+
+    /**
+     * Ids of the items due for processing, in ascending order, see {@code ProcessingMode#INCREMENTAL}.
+     */
+    List<Long> findUnprocessedIds();
+
+    /**
+     * Deletes an item if its version is {@code expectedVersion}; a {@code null} expected version skips the check.
+     *
+     * @return whether an item was deleted
+     */
+    boolean deleteById(Long id, Long expectedVersion);
+
+    default boolean deleteById(Long id) {
+        return deleteById(id, null);
+    }
+
+    long count();
+}
@@ -0,0 +1,22 @@
+package com.siemens.internship.store;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Refuses to start with {@code item.storage.type=MAPPED}. The {@link MappedItemStore} only covers the by-id
+ * operations, while listing, search, export, bulk writes, batch, pipeline and job runs and the change feed read
+ * and write the {@code items} table. Running on the log would split the items between two places, so it cannot
+ * be selected until every item path goes through the {@link ItemStore}.
+ */
+@Configuration
+public class ItemStoreConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "item.storage.type", havingValue = "mapped")
+    public ItemStore mappedItemStore() {
+        throw new IllegalStateException("item.storage.type=MAPPED is not supported yet: only lookups and writes by id "
+                + "would use the log, every other item query and write still uses the database");
+    }
+}
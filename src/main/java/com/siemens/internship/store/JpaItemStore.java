@@ -0,0 +1,77 @@
+package com.siemens.internship.store;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The default {@link ItemStore}, backed by the {@link ItemRepository}. Writes join the caller's transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "item.storage.type", havingValue = "jpa", matchIfMissing = true)
+public class JpaItemStore implements ItemStore {
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public JpaItemStore(ItemRepository itemRepository, TransactionTemplate transactionTemplate) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return itemRepository.findById(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return itemRepository.existsById(id);
+    }
+
+    @Override
+    public Item save(Item item) {
+        // a merge only bumps the version on flush, the returned item has to carry the new one
+        return itemRepository.saveAndFlush(item);
+    }
+
+    @Override
+    public Optional<Long> update(Long id, Item item, Long expectedVersion, Instant now) {
+        return transactionTemplate.execute(status -> {
+            int rows = itemRepository.updateIfVersion(id, item.getName(), item.getDescription(), item.getStatus(),
+                    item.getEmail(), expectedVersion, now);
+            if (rows == 0) {
+                return Optional.<Long>empty();
+            }
+            // with an expected version the new one is known without reading the row back
+            return expectedVersion != null ? Optional.of(expectedVersion + 1) : itemRepository.findVersionById(id);
+        });
+    }
+
+    @Override
+    public List<Long> findAllIds() {
+        return itemRepository.findAllIds();
+    }
+
+    @Override
+    public List<Long> findUnprocessedIds() {
+        return itemRepository.findUnprocessedIds();
+    }
+
+    @Override
+    public boolean deleteById(Long id, Long expectedVersion) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                itemRepository.deleteIfVersion(id, expectedVersion) > 0));
+    }
+
+    @Override
+    public long count() {
+        return itemRepository.count();
+    }
+}
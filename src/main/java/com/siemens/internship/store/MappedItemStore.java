@@ -0,0 +1,528 @@
+package com.siemens.internship.store;
+
+import com.siemens.internship.Item;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * {@link ItemStore} persisting items as an append-only log of fixed-size records in memory-mapped segment files.
+ * Every write appends a record, so a write is a copy into the page cache; the latest record of each id is found
+ * through an {@link OffHeapIndex} from id to record location. Superseded and deleted records are dropped by
+ * compaction, which copies the live records into fresh segments once they make up less than
+ * {@code item.storage.compaction-threshold} of the log.
+ *
+ * <p>On startup the index is rebuilt by replaying the segments in order. Every record carries a checksum, so a
+ * record torn by a crash in the middle of a write ends the replay of its segment and is overwritten by the next
+ * write. Compaction writes its segments after the existing ones and deletes the old segments oldest first, so a
+ * crash at any point replays to the same state.
+ *
+ * <p>New ids come from a supplier, in the application the {@code item_seq} sequence of the database (see
+ * {@link ItemStoreConfiguration}), so they never collide with rows inserted through JPA. Writes are not part of
+ * the database transaction: the change record of a write can roll back while the write stays. The lease columns
+ * of {@link Item} are not stored, cluster processing needs the {@code JPA} backend.
+ */
+public class MappedItemStore implements ItemStore, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedItemStore.class);
+
+    static final int RECORD_SIZE = 1280;
+
+    // record layout: the checksum covers everything after it
+    private static final int CHECKSUM = 0;
+    private static final int TYPE = 4;
+    private static final int ID = 8;
+    private static final int VERSION = 16;
+    private static final int MODIFIED_AT_SECONDS = 24;
+    private static final int PROCESSED_AT_SECONDS = 32;
+    private static final int MODIFIED_AT_NANOS = 40;
+    private static final int PROCESSED_AT_NANOS = 44;
+    private static final int LENGTHS = 48;
+    private static final int NAME = 56;
+    private static final int NAME_CAPACITY = 256;
+    private static final int DESCRIPTION = NAME + NAME_CAPACITY;
+    private static final int DESCRIPTION_CAPACITY = 640;
+    private static final int STATUS = DESCRIPTION + DESCRIPTION_CAPACITY;
+    private static final int STATUS_CAPACITY = 64;
+    private static final int EMAIL = STATUS + STATUS_CAPACITY;
+    private static final int EMAIL_CAPACITY = 256;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("items-(\\d{10})\\.log");
+
+    private final Path directory;
+    private final int segmentSize;
+    private final double compactionThreshold;
+    private final boolean syncOnWrite;
+    // called under the write lock
+    private final LongSupplier ids;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private List<Segment> segments = new ArrayList<>();
+    private OffHeapIndex index;
+    // next free slot of the last segment
+    private int writeSlot;
+    // records in the log, live or not
+    private long records;
+    private long maxId;
+
+    /**
+     * Opens a store that numbers new items itself, after the highest id it has seen.
+     */
+    public MappedItemStore(ItemStorageProperties properties) {
+        this(properties, null);
+    }
+
+    /**
+     * Opens a store that takes the ids of new items from {@code ids}, or numbers them itself if it is {@code null}.
+     */
+    public MappedItemStore(ItemStorageProperties properties, LongSupplier ids) {
+        this.ids = ids != null ? ids : () -> maxId + 1;
+        this.directory = properties.getDirectory();
+        this.segmentSize = Math.max(RECORD_SIZE,
+                (int) Math.min(properties.getSegmentSize().toBytes(), Integer.MAX_VALUE) / RECORD_SIZE * RECORD_SIZE);
+        this.compactionThreshold = properties.getCompactionThreshold();
+        this.syncOnWrite = properties.isSyncOnWrite();
+        try {
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open item store in " + directory, e);
+        }
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            long location = index.get(id);
+            return location == OffHeapIndex.ABSENT ? Optional.empty() : Optional.of(decode(buffer(location), offset(location)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        lock.readLock().lock();
+        try {
+            return index.get(id) != OffHeapIndex.ABSENT;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Item save(Item item) {
+        lock.writeLock().lock();
+        try {
+            long version = 0;
+            long id;
+            if (item.getId() == null) {
+                id = ids.getAsLong();
+            } else {
+                id = item.getId();
+                long location = index.get(id);
+                if (location != OffHeapIndex.ABSENT) {
+                    long stored = buffer(location).getLong(offset(location) + VERSION);
+                    if (item.getVersion() != null && item.getVersion() != stored) {
+                        throw new OptimisticLockingFailureException("Item " + item.getId() + " has version "
+                                + stored + ", expected " + item.getVersion());
+                    }
+                    version = stored + 1;
+                } else if (item.getVersion() != null) {
+                    throw new OptimisticLockingFailureException("Item " + item.getId() + " does not exist");
+                }
+            }
+            // encode before touching the log, an item too large for a record leaves the store unchanged
+            ByteBuffer record = encode(PUT, id, version, item);
+            index.put(id, append(record));
+            maxId = Math.max(maxId, id);
+            // only once the record is written, a failed save leaves the caller's item as it was
+            item.setId(id);
+            item.setVersion(version);
+            compactIfNeeded();
+            return item;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Long> update(Long id, Item item, Long expectedVersion, Instant now) {
+        lock.writeLock().lock();
+        try {
+            long location = index.get(id);
+            if (location == OffHeapIndex.ABSENT) {
+                return Optional.empty();
+            }
+            long version = buffer(location).getLong(offset(location) + VERSION);
+            if (expectedVersion != null && expectedVersion != version) {
+                return Optional.empty();
+            }
+            Item updated = new Item(id, item.getName(), item.getDescription(), item.getStatus(), item.getEmail());
+            updated.markModified(now);
+            index.put(id, append(encode(PUT, id, version + 1, updated)));
+            compactIfNeeded();
+            return Optional.of(version + 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> findAllIds() {
+        lock.readLock().lock();
+        try {
+            return Arrays.stream(sortedIds(index)).boxed().toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> findUnprocessedIds() {
+        lock.readLock().lock();
+        try {
+            return Arrays.stream(sortedIds(index))
+                    .filter(id -> {
+                        long location = index.get(id);
+                        return buffer(location).getLong(offset(location) + PROCESSED_AT_SECONDS) == NULL_TIME;
+                    })
+                    .boxed()
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteById(Long id, Long expectedVersion) {
+        lock.writeLock().lock();
+        try {
+            long location = index.get(id);
+            if (location == OffHeapIndex.ABSENT
+                    || expectedVersion != null && expectedVersion != buffer(location).getLong(offset(location) + VERSION)) {
+                return false;
+            }
+            append(encode(DELETE, id, 0, null));
+            index.remove(id);
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of segment files currently making up the log.
+     */
+    public int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the log with only the latest record of every stored item.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            compactLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forces all segments to disk.
+     */
+    @Override
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            segments.forEach(segment -> segment.buffer().force());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+        index = new OffHeapIndex(0);
+        for (Path file : files) {
+            Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+            matcher.matches();
+            Segment segment = openSegment(Integer.parseInt(matcher.group(1)));
+            segments.add(segment);
+            writeSlot = replay(segment, segments.size() - 1);
+        }
+        if (segments.isEmpty()) {
+            segments.add(openSegment(1));
+            writeSlot = 0;
+        }
+        log.info("Opened item store in {}: {} items in {} records across {} segments",
+                directory, index.size(), records, segments.size());
+    }
+
+    /**
+     * Applies the records of a segment to the index and returns the number of slots in use.
+     */
+    private int replay(Segment segment, int segmentIndex) {
+        MappedByteBuffer buffer = segment.buffer();
+        for (int slot = 0; slot < segment.slots(); slot++) {
+            int offset = slot * RECORD_SIZE;
+            byte type = buffer.get(offset + TYPE);
+            if (type == 0) {
+                return slot;
+            }
+            if ((type != PUT && type != DELETE) || buffer.getInt(offset + CHECKSUM) != checksum(buffer, offset)) {
+                log.warn("Discarding torn record at slot {} of {}", slot, segment.path());
+                buffer.put(offset, new byte[RECORD_SIZE]);
+                return slot;
+            }
+            long id = buffer.getLong(offset + ID);
+            if (type == PUT) {
+                index.put(id, location(segmentIndex, slot));
+            } else {
+                index.remove(id);
+            }
+            maxId = Math.max(maxId, id);
+            records++;
+        }
+        return segment.slots();
+    }
+
+    private void compactIfNeeded() {
+        if (records >= segments.get(0).slots() && records - index.size() > records * compactionThreshold) {
+            compactLocked();
+        }
+    }
+
+    private void compactLocked() {
+        List<Segment> oldSegments = segments;
+        OffHeapIndex oldIndex = index;
+        int oldWriteSlot = writeSlot;
+        long oldRecords = records;
+        try {
+            segments = new ArrayList<>();
+            segments.add(openSegment(oldSegments.get(oldSegments.size() - 1).number() + 1));
+            writeSlot = 0;
+            records = 0;
+            index = new OffHeapIndex(oldIndex.size());
+            // in id order, so that neighbouring ids end up in the same pages
+            for (long id : sortedIds(oldIndex)) {
+                long location = oldIndex.get(id);
+                ByteBuffer record = oldSegments.get(segment(location)).buffer()
+                        .slice(offset(location), RECORD_SIZE);
+                index.put(id, append(record));
+            }
+            if (maxId > 0 && index.get(maxId) == OffHeapIndex.ABSENT) {
+                // keeps the highest id from being handed out again after a restart
+                append(encode(DELETE, maxId, 0, null));
+            }
+            segments.forEach(segment -> segment.buffer().force());
+        } catch (IOException | RuntimeException e) {
+            // the new segments would be replayed after the old ones, so they must not survive a failed compaction
+            segments.forEach(segment -> deleteQuietly(segment.path()));
+            segments = oldSegments;
+            index = oldIndex;
+            writeSlot = oldWriteSlot;
+            records = oldRecords;
+            throw e instanceof IOException io ? new UncheckedIOException("Compaction failed", io) : (RuntimeException) e;
+        }
+        // oldest first: a deletion record must never outlive the older records it cancels
+        for (Segment segment : oldSegments) {
+            deleteQuietly(segment.path());
+        }
+        log.info("Compacted item store from {} to {} records", oldRecords, records);
+    }
+
+    /**
+     * Appends a record to the log, starting a new segment when the current one is full, and returns its location.
+     */
+    private long append(ByteBuffer record) {
+        Segment segment = segments.get(segments.size() - 1);
+        if (writeSlot == segment.slots()) {
+            try {
+                segment.buffer().force();
+                segment = openSegment(segment.number() + 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot start a new segment in " + directory, e);
+            }
+            segments.add(segment);
+            writeSlot = 0;
+        }
+        int offset = writeSlot * RECORD_SIZE;
+        segment.buffer().put(offset, record, 0, RECORD_SIZE);
+        if (syncOnWrite) {
+            segment.buffer().force(offset, RECORD_SIZE);
+        }
+        records++;
+        return location(segments.size() - 1, writeSlot++);
+    }
+
+    private Segment openSegment(int number) throws IOException {
+        Path path = directory.resolve(String.format("items-%010d.log", number));
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // an existing segment keeps its size, even if item.storage.segment-size has changed since
+            long size = channel.size() >= RECORD_SIZE ? channel.size() / RECORD_SIZE * RECORD_SIZE : segmentSize;
+            // the mapping outlives the channel
+            return new Segment(number, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    private static ByteBuffer encode(byte type, long id, long version, Item item) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.put(TYPE, type);
+        record.putLong(ID, id);
+        if (item != null) {
+            record.putLong(VERSION, version);
+            putInstant(record, MODIFIED_AT_SECONDS, MODIFIED_AT_NANOS, item.getModifiedAt());
+            putInstant(record, PROCESSED_AT_SECONDS, PROCESSED_AT_NANOS, item.getProcessedAt());
+            putString(record, 0, NAME, NAME_CAPACITY, "name", item.getName());
+            putString(record, 1, DESCRIPTION, DESCRIPTION_CAPACITY, "description", item.getDescription());
+            putString(record, 2, STATUS, STATUS_CAPACITY, "status", item.getStatus());
+            putString(record, 3, EMAIL, EMAIL_CAPACITY, "email", item.getEmail());
+        }
+        record.putInt(CHECKSUM, checksum(record, 0));
+        return record;
+    }
+
+    private static Item decode(ByteBuffer buffer, int offset) {
+        Item item = new Item(buffer.getLong(offset + ID),
+                getString(buffer, offset, 0, NAME),
+                getString(buffer, offset, 1, DESCRIPTION),
+                getString(buffer, offset, 2, STATUS),
+                getString(buffer, offset, 3, EMAIL),
+                buffer.getLong(offset + VERSION));
+        item.setModifiedAt(getInstant(buffer, offset + MODIFIED_AT_SECONDS, offset + MODIFIED_AT_NANOS));
+        item.setProcessedAt(getInstant(buffer, offset + PROCESSED_AT_SECONDS, offset + PROCESSED_AT_NANOS));
+        return item;
+    }
+
+    private static void putString(ByteBuffer record, int field, int position, int capacity, String name, String value) {
+        if (value == null) {
+            record.putShort(LENGTHS + field * Short.BYTES, (short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > capacity) {
+            throw new IllegalArgumentException("Item " + name + " exceeds " + capacity + " bytes");
+        }
+        record.putShort(LENGTHS + field * Short.BYTES, (short) bytes.length);
+        record.put(position, bytes);
+    }
+
+    private static String getString(ByteBuffer buffer, int offset, int field, int position) {
+        short length = buffer.getShort(offset + LENGTHS + field * Short.BYTES);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset + position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putInstant(ByteBuffer record, int seconds, int nanos, Instant value) {
+        record.putLong(seconds, value == null ? NULL_TIME : value.getEpochSecond());
+        record.putInt(nanos, value == null ? 0 : value.getNano());
+    }
+
+    private static Instant getInstant(ByteBuffer buffer, int seconds, int nanos) {
+        long epochSecond = buffer.getLong(seconds);
+        return epochSecond == NULL_TIME ? null : Instant.ofEpochSecond(epochSecond, buffer.getInt(nanos));
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + TYPE, RECORD_SIZE - TYPE));
+        return (int) crc.getValue();
+    }
+
+    private static long[] sortedIds(OffHeapIndex index) {
+        long[] ids = new long[index.size()];
+        int[] next = {0};
+        index.forEachKey(id -> ids[next[0]++] = id);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private MappedByteBuffer buffer(long location) {
+        return segments.get(segment(location)).buffer();
+    }
+
+    private static long location(int segment, int slot) {
+        return (long) segment << 32 | slot;
+    }
+
+    private static int segment(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offset(long location) {
+        return (int) location * RECORD_SIZE;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Cannot delete {}", path, e);
+        }
+    }
+
+    private record Segment(int number, Path path, MappedByteBuffer buffer) {
+
+        int slots() {
+            return buffer.capacity() / RECORD_SIZE;
+        }
+    }
+}
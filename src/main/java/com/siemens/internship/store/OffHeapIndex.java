@@ -0,0 +1,147 @@
+package com.siemens.internship.store;
+
+import java.nio.ByteBuffer;
+import java.util.function.LongConsumer;
+
+/**
+ * Hash map from positive {@code long} keys to {@code long} values, kept in a direct buffer outside the Java heap,
+ * so that millions of entries neither cost an object per entry nor add to the work of the garbage collector.
+ * Open addressing with linear probing; removal shifts the following entries back instead of leaving tombstones.
+ * Not thread-safe.
+ */
+final class OffHeapIndex {
+
+    static final long ABSENT = -1L;
+
+    private static final int SLOT_SIZE = 2 * Long.BYTES;
+    private static final int MIN_CAPACITY = 1 << 10;
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private ByteBuffer table;
+    private int mask;
+    private int size;
+
+    OffHeapIndex(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2 && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value of {@code key}, or {@link #ABSENT}.
+     */
+    long get(long key) {
+        for (int slot = slotOf(key); ; slot = (slot + 1) & mask) {
+            long current = keyAt(slot);
+            if (current == key) {
+                return valueAt(slot);
+            }
+            if (current == 0) {
+                return ABSENT;
+            }
+        }
+    }
+
+    void put(long key, long value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        for (int slot = slotOf(key); ; slot = (slot + 1) & mask) {
+            long current = keyAt(slot);
+            if (current == key) {
+                table.putLong(slot * SLOT_SIZE + Long.BYTES, value);
+                return;
+            }
+            if (current == 0) {
+                table.putLong(slot * SLOT_SIZE, key);
+                table.putLong(slot * SLOT_SIZE + Long.BYTES, value);
+                // keep the load factor at or below one half, so that probe sequences stay short
+                if (++size * 2 > mask + 1) {
+                    grow();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns whether {@code key} was present.
+     */
+    boolean remove(long key) {
+        int slot = slotOf(key);
+        while (keyAt(slot) != key) {
+            if (keyAt(slot) == 0) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // move back every following entry of the cluster that would otherwise become unreachable
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keyAt(next) != 0; next = (next + 1) & mask) {
+            int home = slotOf(keyAt(next));
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table.putLong(hole * SLOT_SIZE, keyAt(next));
+                table.putLong(hole * SLOT_SIZE + Long.BYTES, valueAt(next));
+                hole = next;
+            }
+        }
+        table.putLong(hole * SLOT_SIZE, 0L);
+        table.putLong(hole * SLOT_SIZE + Long.BYTES, 0L);
+        size--;
+        return true;
+    }
+
+    void forEachKey(LongConsumer action) {
+        for (int slot = 0; slot <= mask; slot++) {
+            long key = keyAt(slot);
+            if (key != 0) {
+                action.accept(key);
+            }
+        }
+    }
+
+    private void grow() {
+        if (mask + 1 >= MAX_CAPACITY) {
+            throw new IllegalStateException("Index is full at " + size + " entries");
+        }
+        ByteBuffer old = table;
+        int oldCapacity = mask + 1;
+        allocate(oldCapacity << 1);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            long key = old.getLong(slot * SLOT_SIZE);
+            if (key != 0) {
+                int target = slotOf(key);
+                while (keyAt(target) != 0) {
+                    target = (target + 1) & mask;
+                }
+                table.putLong(target * SLOT_SIZE, key);
+                table.putLong(target * SLOT_SIZE + Long.BYTES, old.getLong(slot * SLOT_SIZE + Long.BYTES));
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        // zeroed on allocation, and 0 is never a valid key
+        table = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+        mask = capacity - 1;
+    }
+
+    private int slotOf(long key) {
+        // Fibonacci hashing spreads the sequential ids over the whole table
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private long keyAt(int slot) {
+        return table.getLong(slot * SLOT_SIZE);
+    }
+
+    private long valueAt(int slot) {
+        return table.getLong(slot * SLOT_SIZE + Long.BYTES);
+    }
+}
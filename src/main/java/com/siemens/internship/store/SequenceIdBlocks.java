@@ -0,0 +1,31 @@
+package com.siemens.internship.store;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out ids in blocks drawn from a pooled database sequence, like Hibernate's pooled optimizer does: a sequence
+ * value {@code v} reserves the ids {@code v - blockSize + 1} to {@code v}. Hibernate reserves the same ranges for
+ * the values it draws, so ids from both never collide. Not thread-safe.
+ */
+class SequenceIdBlocks implements LongSupplier {
+
+    private final LongSupplier sequence;
+    private final int blockSize;
+    private long next = 1;
+    private long last = 0;
+
+    SequenceIdBlocks(LongSupplier sequence, int blockSize) {
+        this.sequence = sequence;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public long getAsLong() {
+        if (next > last) {
+            last = sequence.getAsLong();
+            // the initial value 1 reserves just itself, there are no ids below it
+            next = Math.max(1, last - blockSize + 1);
+        }
+        return next++;
+    }
+}
@@ -0,0 +1,60 @@
+package com.siemens.internship.writebehind;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Group commit of single creates, bound from the {@code item.write-behind.*} properties.
+ * {@link #maxBatchSize} and {@link #maxDelay} trade latency for throughput: larger groups share one commit,
+ * but a create may wait up to {@link #maxDelay} for its group to fill. A create is only acknowledged once its
+ * group has committed, so a crash loses nothing a client was told about, only requests still waiting.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "item.write-behind")
+public class ItemWriteBehindProperties {
+
+    /**
+     * Queue {@code POST /api/items} and commit the queued items in groups instead of one transaction per item.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of creates waiting for their group. A full queue makes callers wait up to
+     * {@link #offerTimeout}, after which the create is rejected with 503.
+     */
+    @Min(1)
+    private int queueCapacity = 10_000;
+
+    /**
+     * A group is committed as soon as it holds this many items.
+     */
+    @Min(1)
+    private int maxBatchSize = 200;
+
+    /**
+     * A group is committed at the latest when its first item has waited this long. Zero commits whatever is
+     * queued right away, so items only share a commit when they arrive while the previous one runs.
+     */
+    @NotNull
+    private Duration maxDelay = Duration.ofMillis(5);
+
+    /**
+     * How long a create waits for room in a full queue before it is rejected.
+     */
+    @NotNull
+    private Duration offerTimeout = Duration.ofSeconds(1);
+
+    /**
+     * How long shutdown waits for the group being written before the rest of the queue is committed.
+     */
+    @NotNull
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
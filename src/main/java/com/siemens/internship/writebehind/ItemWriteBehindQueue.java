@@ -0,0 +1,211 @@
+package com.siemens.internship.writebehind;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemRepository;
+import com.siemens.internship.change.ItemChangeLog;
+import com.siemens.internship.change.ItemChangeType;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind queue for single creates. Callers enqueue an item and get a future; one flusher thread takes
+ * the queued items in groups of up to {@code max-batch-size}, waiting at most {@code max-delay} for a group
+ * to fill, and inserts each group in one transaction. The futures complete with the saved items, ids included,
+ * once their group has committed. When a group fails, its items are retried one transaction each, so a bad
+ * item only fails its own caller. Whatever is still queued at shutdown is committed before the context closes.
+ */
+@Component
+public class ItemWriteBehindQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemWriteBehindQueue.class);
+
+    // upper bound on how long the flusher sleeps before noticing a shutdown
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemChangeLog changeLog;
+    private final ItemWriteBehindProperties properties;
+    private final BlockingQueue<Pending> queue;
+    private final ExecutorService flusher;
+    private final DistributionSummary groupSize;
+    private final Timer groupTimer;
+    private volatile boolean closed;
+
+    public ItemWriteBehindQueue(ItemRepository itemRepository,
+                                TransactionTemplate transactionTemplate,
+                                ItemChangeLog changeLog,
+                                ItemWriteBehindProperties properties,
+                                MeterRegistry registry) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.changeLog = changeLog;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.groupSize = DistributionSummary.builder("item.write.behind.group.size")
+                .description("Items committed together by the write-behind queue")
+                .register(registry);
+        this.groupTimer = Timer.builder("item.write.behind.group.duration")
+                .description("Time to insert and commit one write-behind group")
+                .register(registry);
+        Gauge.builder("item.write.behind.queue.size", queue, BlockingQueue::size)
+                .description("Creates waiting for their group commit")
+                .register(registry);
+        if (properties.isEnabled()) {
+            this.flusher = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("item-write-behind-"));
+            this.flusher.execute(this::flushLoop);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues {@code item} for insertion. The future completes with the saved item once its group has committed,
+     * or exceptionally with the error of its insert.
+     *
+     * @throws RejectedExecutionException if the queue stays full for {@code offer-timeout} or is shut down
+     */
+    public CompletableFuture<Item> submit(Item item) {
+        if (!isEnabled() || closed) {
+            throw new RejectedExecutionException("The write-behind queue is not accepting items");
+        }
+        Pending pending = new Pending(item, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("The write-behind queue stayed full for "
+                        + properties.getOfferTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for room in the write-behind queue", e);
+        }
+        // raced with shutdown: unless its final drain already took the item, nobody will write it
+        if (closed && queue.remove(pending)) {
+            throw new RejectedExecutionException("The write-behind queue is not accepting items");
+        }
+        return pending.result;
+    }
+
+    private void flushLoop() {
+        long maxDelay = properties.getMaxDelay().toNanos();
+        int maxBatchSize = properties.getMaxBatchSize();
+        List<Pending> group = new ArrayList<>(maxBatchSize);
+        try {
+            while (!closed) {
+                Pending first = queue.poll(POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + maxDelay;
+                long remaining;
+                while (group.size() < maxBatchSize && !closed && (remaining = deadline - System.nanoTime()) > 0) {
+                    Pending next = queue.poll(Math.min(remaining, POLL_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        group.add(next);
+                    }
+                }
+                queue.drainTo(group, maxBatchSize - group.size());
+                flush(group);
+                group.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // a group interrupted while filling goes back to the shutdown flush
+            if (!group.isEmpty()) {
+                flush(group);
+            }
+        }
+    }
+
+    private void flush(List<Pending> group) {
+        try {
+            groupTimer.record(() -> insert(group));
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                group.get(0).result.completeExceptionally(e);
+                return;
+            }
+            log.warn("Write-behind group of {} items failed, retrying them one by one", group.size(), e);
+            for (Pending pending : group) {
+                try {
+                    insert(List.of(pending));
+                } catch (RuntimeException itemError) {
+                    pending.result.completeExceptionally(itemError);
+                }
+            }
+            return;
+        }
+        groupSize.record(group.size());
+    }
+
+    /**
+     * Inserts the items of {@code group} in one transaction and completes their futures after the commit.
+     */
+    private void insert(List<Pending> group) {
+        List<Item> items = group.stream().map(Pending::item).toList();
+        Instant now = Instant.now();
+        items.forEach(item -> {
+            item.setId(null);
+            item.setVersion(null);
+            item.markModified(now);
+        });
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    changeLog.recordAll(ItemChangeType.CREATED, itemRepository.saveAll(items)));
+        } catch (RuntimeException e) {
+            // the ids handed out before the rollback were never committed
+            items.forEach(item -> item.setId(null));
+            throw e;
+        }
+        group.forEach(pending -> pending.result.complete(pending.item));
+    }
+
+    /**
+     * Stops accepting items and commits everything still queued before the database goes away.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        closed = true;
+        flusher.shutdown();
+        if (!flusher.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            flusher.shutdownNow();
+            flusher.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int from = 0; from < rest.size(); from += properties.getMaxBatchSize()) {
+            flush(rest.subList(from, Math.min(rest.size(), from + properties.getMaxBatchSize())));
+        }
+    }
+
+    private record Pending(Item item, CompletableFuture<Item> result) {
+    }
+}
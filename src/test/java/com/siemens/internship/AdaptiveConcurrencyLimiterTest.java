@@ -0,0 +1,108 @@
+package com.siemens.internship;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AdaptiveConcurrencyLimiter.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        ItemProcessingProperties properties = new ItemProcessingProperties();
+        properties.getLimiter().setInitialLimit(2);
+        properties.getLimiter().setMinLimit(1);
+        properties.getLimiter().setMaxLimit(4);
+        properties.getLimiter().setBackoffRatio(0.5);
+        limiter = new AdaptiveConcurrencyLimiter(properties);
+    }
+
+    @Test
+    void tryAcquire_WhenLimitReached_ShouldRejectAfterTimeout() throws Exception {
+        assertTrue(limiter.tryAcquire(Duration.ZERO));
+        assertTrue(limiter.tryAcquire(Duration.ZERO));
+
+        assertFalse(limiter.tryAcquire(Duration.ofMillis(10)));
+
+        assertEquals(new LimiterSnapshot(2, 2, 1), limiter.snapshot());
+    }
+
+    @Test
+    void release_WhenFastAndSaturated_ShouldIncreaseLimitUpToMax() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            int limit = limiter.snapshot().limit();
+            for (int j = 0; j < limit; j++) {
+                assertTrue(limiter.tryAcquire(Duration.ZERO));
+            }
+            for (int j = 0; j < limit; j++) {
+                limiter.release(FAST, true);
+            }
+        }
+
+        assertEquals(4, limiter.snapshot().limit());
+        assertEquals(0, limiter.snapshot().inFlight());
+    }
+
+    @Test
+    void limit_WithThreadPool_ShouldBeCappedAtPoolSize() throws Exception {
+        ItemProcessingProperties properties = new ItemProcessingProperties();
+        properties.setPoolSize(3);
+        properties.getLimiter().setInitialLimit(10);
+        properties.getLimiter().setMaxLimit(200);
+        AdaptiveConcurrencyLimiter pooled = new AdaptiveConcurrencyLimiter(properties);
+
+        assertEquals(3, pooled.snapshot().limit());
+        for (int i = 0; i < 50; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertTrue(pooled.tryAcquire(Duration.ZERO));
+            }
+            for (int j = 0; j < 3; j++) {
+                pooled.release(FAST, true);
+            }
+        }
+        assertEquals(3, pooled.snapshot().limit());
+
+        properties.setExecutor(ItemProcessingProperties.ExecutorType.VIRTUAL);
+        assertEquals(10, new AdaptiveConcurrencyLimiter(properties).snapshot().limit());
+    }
+
+    @Test
+    void release_WhenSlowOrFailed_ShouldBackOffDownToMin() throws Exception {
+        assertTrue(limiter.tryAcquire(Duration.ZERO));
+        limiter.release(SLOW, true);
+        assertEquals(1, limiter.snapshot().limit());
+
+        assertTrue(limiter.tryAcquire(Duration.ZERO));
+        limiter.release(FAST, false);
+        assertEquals(1, limiter.snapshot().limit());
+    }
+
+    @Test
+    void release_ShouldWakeUpWaitingCaller() throws Exception {
+        assertTrue(limiter.tryAcquire(Duration.ZERO));
+        assertTrue(limiter.tryAcquire(Duration.ZERO));
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            limiter.release(FAST, true);
+        });
+        releaser.start();
+
+        assertTrue(limiter.tryAcquire(Duration.ofSeconds(5)));
+        releaser.join();
+    }
+}
@@ -7,11 +7,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
+
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,10 +36,17 @@ class InternshipApplicationTests {
 	@Autowired
 	private ItemService itemService;
 
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
 	private Item testItem;
 
 	@BeforeEach
 	void setUp() {
+		itemRepository.deleteAll();
 		testItem = new Item(null, "Test Item", "Test Description", "Active", "test@example.com");
 	}
 
@@ -43,9 +54,13 @@ class InternshipApplicationTests {
 	void createItemTest() throws Exception {
 		String itemJson = objectMapper.writeValueAsString(testItem);
 
-		MvcResult result = mockMvc.perform(post("/api/items")
+		MvcResult asyncResult = mockMvc.perform(post("/api/items")
 						.contentType(MediaType.APPLICATION_JSON)
 						.content(itemJson))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
 				.andExpect(status().isCreated())
 				.andExpect(jsonPath("$.name").value(testItem.getName()))
 				.andReturn();
@@ -85,6 +100,31 @@ class InternshipApplicationTests {
 				.andExpect(jsonPath("$").isArray());
 	}
 
+	@Test
+	void getItemsPageTest() throws Exception {
+		Item first = itemService.save(new Item(null, "First", null, "NEW", "first@example.com"));
+		Item second = itemService.save(new Item(null, "Second", null, "NEW", "second@example.com"));
+		itemService.save(new Item(null, "Third", null, "NEW", "third@example.com"));
+
+		mockMvc.perform(get("/api/items").param("after", String.valueOf(first.getId())).param("limit", "1"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("X-Next-After", String.valueOf(second.getId())))
+				.andExpect(jsonPath("$", hasSize(1)))
+				.andExpect(jsonPath("$[0].name", is("Second")));
+	}
+
+	@Test
+	void exportItemsTest() throws Exception {
+		itemService.save(testItem);
+		itemService.save(new Item(null, "Second Item", null, "NEW", "second@example.com"));
+
+		mockMvc.perform(get("/api/items/export"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(2)))
+				.andExpect(jsonPath("$[0].name", is("Test Item")))
+				.andExpect(jsonPath("$[1].name", is("Second Item")));
+	}
+
 	@Test
 	void updateItemTest() throws Exception {
 		Item savedItem = itemService.save(testItem);
@@ -97,6 +137,120 @@ class InternshipApplicationTests {
 				.andExpect(jsonPath("$.name").value("Updated Name"));
 	}
 
+	@Test
+	void updateItemWithStaleVersionTest() throws Exception {
+		Item savedItem = itemService.save(testItem);
+		Long version = savedItem.getVersion();
+		savedItem.setName("First Writer");
+
+		mockMvc.perform(put("/api/items/{id}", savedItem.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(savedItem)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.version").value(version + 1));
+
+		savedItem.setName("Second Writer");
+		mockMvc.perform(put("/api/items/{id}", savedItem.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(savedItem)))
+				.andExpect(status().isConflict());
+
+		assertEquals("First Writer", itemService.findById(savedItem.getId()).getName());
+	}
+
+	@Test
+	void filterItemsTest() throws Exception {
+		itemService.save(new Item(null, "Red 50% off", null, "NEW", "a@example.com"));
+		itemService.save(new Item(null, "Red chair", null, "DONE", "a@example.com"));
+		itemService.save(new Item(null, "Blue chair", null, "NEW", "b@example.com"));
+		itemService.save(new Item(null, "Red table", null, "NEW", "c@example.com"));
+
+		mockMvc.perform(get("/api/items").param("status", "NEW"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(3)));
+		mockMvc.perform(get("/api/items").param("email", "a@example.com").param("status", "NEW"))
+				.andExpect(jsonPath("$", hasSize(1)))
+				.andExpect(jsonPath("$[0].name", is("Red 50% off")));
+		mockMvc.perform(get("/api/items").param("name", "chair"))
+				.andExpect(jsonPath("$", hasSize(2)));
+		mockMvc.perform(get("/api/items").param("name", "0%"))
+				.andExpect(jsonPath("$", hasSize(1)));
+
+		String next = mockMvc.perform(get("/api/items").param("name", "Red").param("limit", "2"))
+				.andExpect(jsonPath("$", hasSize(2)))
+				.andReturn().getResponse().getHeader("X-Next-After");
+		mockMvc.perform(get("/api/items").param("name", "Red").param("limit", "2").param("after", next))
+				.andExpect(jsonPath("$", hasSize(1)))
+				.andExpect(jsonPath("$[0].name", is("Red table")));
+	}
+
+	@Test
+	void itemIndexesTest() {
+		List<String> indexes = jdbcTemplate.queryForList(
+				"SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'ITEM'", String.class);
+
+		assertTrue(indexes.stream().anyMatch(name -> name.equalsIgnoreCase("idx_item_status_id")));
+		assertTrue(indexes.stream().anyMatch(name -> name.equalsIgnoreCase("idx_item_email")));
+		assertTrue(indexes.stream().anyMatch(name -> name.equalsIgnoreCase("idx_item_processed_at_id")));
+	}
+
+	@Test
+	void conditionalRequestsTest() throws Exception {
+		Item savedItem = itemService.save(testItem);
+		String etag = "\"" + savedItem.getVersion() + "\"";
+
+		mockMvc.perform(get("/api/items/{id}", savedItem.getId()))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", etag));
+		mockMvc.perform(get("/api/items/{id}", savedItem.getId()).header("If-None-Match", etag))
+				.andExpect(status().isNotModified());
+
+		savedItem.setName("Changed");
+		String newETag = mockMvc.perform(put("/api/items/{id}", savedItem.getId())
+						.header("If-Match", etag)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(savedItem)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+		assertNotEquals(etag, newETag);
+
+		mockMvc.perform(get("/api/items/{id}", savedItem.getId()).header("If-None-Match", etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Changed"));
+		mockMvc.perform(delete("/api/items/{id}", savedItem.getId()).header("If-Match", etag))
+				.andExpect(status().isPreconditionFailed());
+		mockMvc.perform(delete("/api/items/{id}", savedItem.getId()).header("If-Match", newETag))
+				.andExpect(status().isNoContent());
+	}
+
+	@Test
+	void updateAndDeleteMissingItemTest() throws Exception {
+		mockMvc.perform(put("/api/items/{id}", 12345L)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(testItem)))
+				.andExpect(status().isNotFound());
+
+		mockMvc.perform(delete("/api/items/{id}", 12345L))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void legacyRowWithoutVersionTest() throws Exception {
+		assertEquals("NO", jdbcTemplate.queryForObject("SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS "
+				+ "WHERE TABLE_NAME = 'ITEM' AND COLUMN_NAME = 'VERSION'", String.class));
+		// a row written without a version, as by a writer predating the column
+		jdbcTemplate.update("INSERT INTO item (id, name, status) VALUES (?, ?, ?)", 900_001L, "Legacy", "NEW");
+		jdbcTemplate.update("INSERT INTO item (id, name, status) VALUES (?, ?, ?)", 900_002L, "Legacy", "NEW");
+
+		mockMvc.perform(put("/api/items/{id}", 900_001L)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(testItem)))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"1\""));
+		mockMvc.perform(delete("/api/items/{id}", 900_002L))
+				.andExpect(status().isNoContent());
+	}
+
 	@Test
 	void deleteItemTest() throws Exception {
 		Item savedItem = itemService.save(testItem);
@@ -124,5 +278,128 @@ class InternshipApplicationTests {
 				.andExpect(jsonPath("$[0].status", is("PROCESSED")));
 	}
 
+	@Test
+	void processItemsInBatchesTest() throws Exception {
+		for (int i = 0; i < 1200; i++) {
+			itemService.save(new Item(null, "Item " + i, null, "NEW", "item" + i + "@example.com"));
+		}
+
+		MvcResult mvcResult = mockMvc.perform(get("/api/items/process/batch"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.processed", is(1200)))
+				.andExpect(jsonPath("$.chunks", is(3)));
+
+		assertTrue(itemService.findAll().stream().allMatch(item -> "PROCESSED".equals(item.getStatus())));
+	}
+
+	@Test
+	void incrementalProcessingTest() throws Exception {
+		Item first = itemService.save(new Item(null, "First", null, "NEW", "first@example.com"));
+		Item second = itemService.save(new Item(null, "Second", null, "NEW", "second@example.com"));
+
+		MvcResult full = mockMvc.perform(get("/api/items/process/batch").param("mode", "INCREMENTAL"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(full))
+				.andExpect(jsonPath("$.processed", is(2)));
+		assertNotNull(itemService.findById(first.getId()).getProcessedAt());
+
+		MvcResult nothing = mockMvc.perform(get("/api/items/process/batch").param("mode", "INCREMENTAL"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(nothing))
+				.andExpect(jsonPath("$.processed", is(0)));
+
+		itemService.update(second.getId(), new Item(null, "Second changed", null, "NEW", "second@example.com"));
+		assertNull(itemService.findById(second.getId()).getProcessedAt());
+
+		MvcResult delta = mockMvc.perform(get("/api/items/process").param("mode", "INCREMENTAL"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(delta))
+				.andExpect(jsonPath("$", hasSize(1)))
+				.andExpect(jsonPath("$[0].name", is("Second changed")))
+				.andExpect(jsonPath("$[0].status", is("PROCESSED")));
+	}
+
+	@Test
+	void processItemsStreamingTest() throws Exception {
+		itemService.save(testItem);
+		itemService.save(new Item(null, "Second Item", null, "NEW", "second@example.com"));
+
+		MvcResult mvcResult = mockMvc.perform(get("/api/items/process/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		String body = mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		String[] lines = body.split("\n");
+		assertEquals(2, lines.length);
+		for (String line : lines) {
+			assertEquals("PROCESSED", objectMapper.readValue(line, Item.class).getStatus());
+		}
+	}
+
+	@Test
+	void batchCreateUpdateDeleteTest() throws Exception {
+		List<Item> items = List.of(
+				new Item(null, "First", null, "NEW", "first@example.com"),
+				new Item(null, "Second", null, "NEW", "invalid-email"),
+				new Item(null, "Third", null, "NEW", "third@example.com"));
+
+		String created = mockMvc.perform(post("/api/items/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(items)))
+				.andExpect(status().isMultiStatus())
+				.andExpect(jsonPath("$.succeeded", is(2)))
+				.andExpect(jsonPath("$.results[1].status", is(400)))
+				.andReturn().getResponse().getContentAsString();
+		ItemBatchResult result = objectMapper.readValue(created, ItemBatchResult.class);
+		Long firstId = result.results().get(0).id();
+		Long thirdId = result.results().get(2).id();
+		assertEquals(2, itemRepository.count());
+
+		List<Item> updates = List.of(
+				new Item(firstId, "First", null, "DONE", "first@example.com"),
+				new Item(thirdId, "Third", null, "DONE", "third@example.com"));
+		mockMvc.perform(put("/api/items/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(updates)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.succeeded", is(2)));
+		assertEquals("DONE", itemService.findById(firstId).getStatus());
+
+		mockMvc.perform(delete("/api/items/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(List.of(firstId, thirdId, -1L))))
+				.andExpect(status().isMultiStatus())
+				.andExpect(jsonPath("$.succeeded", is(2)))
+				.andExpect(jsonPath("$.results[2].status", is(404)));
+		assertEquals(0, itemRepository.count());
+	}
+
+	@Test
+	void batchCreateFromNdjsonTest() throws Exception {
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < 1100; i++) {
+			body.append(objectMapper.writeValueAsString(new Item(null, "Item " + i, null, "NEW", null))).append('\n');
+		}
+		body.append("{not json}\n");
+
+		mockMvc.perform(post("/api/items/batch")
+						.contentType(MediaType.APPLICATION_NDJSON)
+						.content(body.toString()))
+				.andExpect(status().isMultiStatus())
+				.andExpect(jsonPath("$.succeeded", is(1100)))
+				.andExpect(jsonPath("$.results[1100].error", startsWith("Malformed JSON")));
+		assertEquals(1100, itemRepository.count());
+	}
+
 
-}
+}
\ No newline at end of file
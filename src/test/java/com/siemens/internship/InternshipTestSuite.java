@@ -1,5 +1,19 @@
 package com.siemens.internship;
 
+import com.siemens.internship.change.ItemChangeControllerTest;
+import com.siemens.internship.change.ItemChangeLogTest;
+import com.siemens.internship.cluster.ItemClusterProcessingTest;
+import com.siemens.internship.deadletter.DeadLetterControllerTest;
+import com.siemens.internship.deadletter.DeadLetterStoreTest;
+import com.siemens.internship.job.ProcessingJobControllerTest;
+import com.siemens.internship.job.ProcessingJobServiceTest;
+import com.siemens.internship.pipeline.ItemPipelineTest;
+import com.siemens.internship.pipeline.ItemProcessorChainTest;
+import com.siemens.internship.startup.StartupReportTest;
+import com.siemens.internship.store.ItemStoreConfigurationTest;
+import com.siemens.internship.store.MappedItemStoreTest;
+import com.siemens.internship.store.OffHeapIndexTest;
+import com.siemens.internship.writebehind.ItemWriteBehindQueueTest;
 import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 
@@ -11,6 +25,31 @@ import org.junit.platform.suite.api.Suite;
 @SelectClasses({
         ItemServiceTest.class,
         ItemControllerTest.class,
+        ItemBatchProcessorTest.class,
+        ItemExecutorConfigurationTest.class,
+        AdaptiveConcurrencyLimiterTest.class,
+        RetryPolicyTest.class,
+        SingleFlightTest.class,
+        ItemValidatorTest.class,
+        ItemCacheTest.class,
+        ItemBulkServiceTest.class,
+        MetricsEndpointTest.class,
+        ResponseCompressionTest.class,
+        ProcessingJobServiceTest.class,
+        ItemChangeLogTest.class,
+        ItemChangeControllerTest.class,
+        ItemProcessorChainTest.class,
+        ItemPipelineTest.class,
+        DeadLetterControllerTest.class,
+        DeadLetterStoreTest.class,
+        ItemProcessingConflictTest.class,
+        ItemClusterProcessingTest.class,
+        ItemWriteBehindQueueTest.class,
+        OffHeapIndexTest.class,
+        MappedItemStoreTest.class,
+        ItemStoreConfigurationTest.class,
+        StartupReportTest.class,
+        ProcessingJobControllerTest.class,
         InternshipApplicationTests.class
 })
 public class InternshipTestSuite {
@@ -0,0 +1,136 @@
+package com.siemens.internship;
+
+import com.siemens.internship.change.ItemChangeLog;
+import com.siemens.internship.change.ItemChangeType;
+import com.siemens.internship.cluster.ItemClusterProperties;
+import com.siemens.internship.cluster.ItemLeaseManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ItemBatchProcessor.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ItemBatchProcessorTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ItemCache itemCache;
+
+    @Mock
+    private ItemChangeLog changeLog;
+
+    private ExecutorService executor;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ItemBatchProcessor batchProcessor;
+
+    @BeforeEach
+    void setUp() {
+        ItemProcessingProperties properties = new ItemProcessingProperties();
+        properties.setChunkSize(2);
+        properties.setParallelism(2);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        RetryPolicy retryPolicy = new RetryPolicy(properties, registry);
+        executor = Executors.newFixedThreadPool(2);
+        batchProcessor = new ItemBatchProcessor(itemRepository, transactionTemplate, properties, itemCache, changeLog,
+                new ItemLeaseManager(itemRepository, transactionTemplate, retryPolicy, new ItemClusterProperties()),
+                retryPolicy, executor, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void processChunk_ShouldUpdateWithSingleStatementAndReload() {
+        List<Long> ids = List.of(1L, 2L);
+        List<Item> items = List.of(
+                new Item(1L, "A", null, "PROCESSED", "a@email.com"),
+                new Item(2L, "B", null, "PROCESSED", "b@email.com"));
+        when(itemRepository.findAllById(ids)).thenReturn(items);
+
+        List<Item> result = batchProcessor.processChunk(ids);
+
+        assertEquals(items, result);
+        verify(itemRepository).markProcessed(eq(ids), any(Instant.class));
+        verify(itemRepository, never()).save(any(Item.class));
+        verify(transactionManager).commit(any());
+        verify(itemCache).evictAll(ids);
+        verify(changeLog).recordAll(ItemChangeType.PROCESSED, items);
+    }
+
+    @Test
+    void processAll_ShouldWalkIdsInKeysetChunks() {
+        when(itemRepository.findIdsAfter(eq(0L), any(Limit.class))).thenReturn(List.of(1L, 2L));
+        when(itemRepository.findIdsAfter(eq(2L), any(Limit.class))).thenReturn(List.of(3L));
+        when(itemRepository.findIdsAfter(eq(3L), any(Limit.class))).thenReturn(Collections.emptyList());
+        when(itemRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> new Item(id, "Item " + id, null, "PROCESSED", null)).toList();
+        });
+        List<Item> seen = Collections.synchronizedList(new ArrayList<>());
+
+        ProcessingSummary summary = batchProcessor.processAll(seen::addAll);
+
+        assertEquals(3, summary.processed());
+        assertEquals(2, summary.chunks());
+        assertEquals(3, seen.size());
+        verify(itemRepository).markProcessed(eq(List.of(1L, 2L)), any(Instant.class));
+        verify(itemRepository).markProcessed(eq(List.of(3L)), any(Instant.class));
+    }
+
+    @Test
+    void processAll_Incremental_ShouldOnlyWalkUnprocessedIds() {
+        when(itemRepository.findUnprocessedIdsAfter(eq(0L), any(Limit.class))).thenReturn(List.of(5L));
+        when(itemRepository.findUnprocessedIdsAfter(eq(5L), any(Limit.class))).thenReturn(Collections.emptyList());
+        when(itemRepository.findAllById(List.of(5L))).thenReturn(List.of(new Item(5L, "E", null, "PROCESSED", null)));
+
+        ProcessingSummary summary = batchProcessor.processAll(ProcessingMode.INCREMENTAL, items -> {
+        });
+
+        assertEquals(1, summary.processed());
+        verify(itemRepository, never()).findIdsAfter(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void processAll_WhenChunkFails_ShouldPropagateFailure() {
+        // one stub for both pages: the walk may already stop on the failure before asking for the second
+        when(itemRepository.findIdsAfter(anyLong(), any(Limit.class))).thenReturn(List.of(1L), Collections.emptyList());
+        when(itemRepository.markProcessed(anyCollection(), any(Instant.class))).thenThrow(new IllegalStateException("boom"));
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> batchProcessor.processAll(items -> {
+        }));
+
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        verify(transactionManager).rollback(any());
+        assertEquals(1, registry.get("item.processing.items").tags("mode", "batch", "outcome", "failed").counter().count());
+    }
+}
@@ -0,0 +1,144 @@
+package com.siemens.internship;
+
+import com.siemens.internship.change.ItemChangeLog;
+import com.siemens.internship.change.ItemChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ItemBulkService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ItemBulkServiceTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ItemCache itemCache;
+
+    @Mock
+    private ItemChangeLog changeLog;
+
+    private ItemBulkService bulkService;
+
+    @BeforeEach
+    void setUp() {
+        ItemProcessingProperties properties = new ItemProcessingProperties();
+        properties.setChunkSize(2);
+        bulkService = new ItemBulkService(itemRepository, new TransactionTemplate(transactionManager),
+                new ItemValidator(), itemCache, changeLog, properties);
+    }
+
+    @Test
+    void createAll_ShouldValidateEachElementAndSaveInChunks() {
+        AtomicLong sequence = new AtomicLong(100);
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            chunkSizes.add(items.size());
+            items.forEach(item -> item.setId(sequence.incrementAndGet()));
+            return items;
+        });
+
+        ItemBatchResult result = bulkService.createAll(List.of(
+                new Item(7L, "A", null, "NEW", "a@email.com"),
+                new Item(null, "", null, "NEW", "b@email.com"),
+                new Item(null, "C", null, "NEW", "invalid-email"),
+                new Item(null, "D", null, "NEW", "d@email.com"),
+                new Item(null, "E", null, "NEW", "e@email.com")));
+
+        assertEquals(3, result.succeeded());
+        assertEquals(2, result.failed());
+        assertEquals(List.of(0, 1, 2, 3, 4), result.results().stream().map(ItemBatchResult.Element::index).toList());
+        assertEquals(List.of(201, 400, 400, 201, 201), result.results().stream().map(ItemBatchResult.Element::status).toList());
+        assertEquals(101L, result.results().get(0).id());
+        assertTrue(result.results().get(1).error().contains("name"));
+        assertTrue(result.results().get(2).error().contains("email"));
+        assertEquals(List.of(new ItemValidator.FieldError(2, "email", "Email must be valid")),
+                result.results().get(2).fieldErrors());
+        assertNull(result.results().get(0).fieldErrors());
+        assertEquals(List.of(2, 1), chunkSizes);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void createSession_ShouldReportTheSameErrorsAsAnArrayBody() {
+        List<Item> items = List.of(
+                new Item(null, "A", null, "NEW", "a@email.com"),
+                new Item(null, "", null, "NEW", "invalid-email"));
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ItemBatchResult streamed = bulkService.createSession().addAll(items).finish();
+        ItemBatchResult array = bulkService.createAll(items);
+
+        assertEquals(array.results().get(1), streamed.results().get(1));
+        assertEquals("email: Email must be valid, name: must not be empty", streamed.results().get(1).error());
+        assertEquals(List.of("email", "name"),
+                streamed.results().get(1).fieldErrors().stream().map(ItemValidator.FieldError::field).toList());
+    }
+
+    @Test
+    void createAll_WhenChunkFails_ShouldReportItsElementsAndContinue() {
+        when(itemRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ItemBatchResult result = bulkService.createAll(List.of(
+                new Item(null, "A", null, "NEW", null),
+                new Item(null, "B", null, "NEW", null),
+                new Item(null, "C", null, "NEW", null)));
+
+        assertEquals(List.of(409, 409, 201), result.results().stream().map(ItemBatchResult.Element::status).toList());
+        assertEquals("duplicate", result.results().get(0).error());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void updateAll_ShouldApplyChangesToManagedItemsAndReportMissingOnes() {
+        Item managed = new Item(1L, "Old", null, "NEW", "old@email.com");
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(managed));
+
+        ItemBatchResult result = bulkService.updateAll(List.of(
+                new Item(1L, "New", "Changed", "DONE", "new@email.com"),
+                new Item(2L, "Gone", null, "NEW", null),
+                new Item(null, "No id", null, "NEW", null)));
+
+        assertEquals(List.of(200, 404, 400), result.results().stream().map(ItemBatchResult.Element::status).toList());
+        assertEquals("New", managed.getName());
+        assertEquals("DONE", managed.getStatus());
+        verify(itemRepository, never()).save(any(Item.class));
+        verify(itemCache).evictAll(List.of(1L, 2L));
+        verify(changeLog).recordAll(ItemChangeType.UPDATED, List.of(managed));
+    }
+
+    @Test
+    void deleteAll_ShouldDeleteExistingIdsWithOneStatement() {
+        when(itemRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+        when(itemRepository.findExistingIds(List.of(3L))).thenReturn(List.of(3L));
+
+        ItemBatchResult result = bulkService.deleteAll(List.of(1L, 2L, 3L));
+
+        assertEquals(List.of(204, 404, 204), result.results().stream().map(ItemBatchResult.Element::status).toList());
+        verify(itemRepository).deleteAllByIdInBatch(argThat(ids -> ids.iterator().next() == 1L));
+        verify(itemRepository, times(2)).deleteAllByIdInBatch(anyCollection());
+        verify(itemRepository, never()).deleteById(anyLong());
+    }
+}
@@ -0,0 +1,127 @@
+package com.siemens.internship;
+
+import com.siemens.internship.exception.ItemNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Integration tests for the items cache: read-through on findById and invalidation on every write path.
+ */
+@SpringBootTest
+public class ItemCacheTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @SpyBean
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemBatchProcessor batchProcessor;
+
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        item = itemService.save(new Item(null, "Cached", null, "NEW", "cached@example.com"));
+    }
+
+    @Test
+    void findById_ShouldServeRepeatedReadsFromCache() {
+        ItemCache.CacheStatsSnapshot before = itemService.cacheStats();
+
+        itemService.findById(item.getId());
+        itemService.findById(item.getId());
+
+        ItemCache.CacheStatsSnapshot after = itemService.cacheStats();
+        assertEquals(1, after.missCount() - before.missCount());
+        assertEquals(1, after.hitCount() - before.hitCount());
+    }
+
+    @Test
+    void findById_ShouldShareOneQueryBetweenConcurrentMisses() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Optional.of(item);
+        }).when(itemRepository).findById(item.getId());
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Item>> results = new ArrayList<>();
+            results.add(callers.submit(() -> itemService.findById(item.getId())));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(callers.submit(() -> itemService.findById(item.getId())));
+            }
+            // give the other callers time to block on the load in progress
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<Item> result : results) {
+                assertEquals(item.getId(), result.get(5, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        verify(itemRepository, times(1)).findById(item.getId());
+    }
+
+    @Test
+    void save_ShouldEvictStaleEntry() {
+        Item cached = itemService.findById(item.getId());
+        Item update = new Item(cached.getId(), "Renamed", null, "NEW", "cached@example.com", cached.getVersion());
+
+        itemService.save(update);
+
+        assertEquals("Renamed", itemService.findById(item.getId()).getName());
+    }
+
+    @Test
+    void update_ShouldEvictStaleEntry() {
+        Item cached = itemService.findById(item.getId());
+
+        itemService.update(item.getId(), new Item(null, "Renamed", null, "NEW", "cached@example.com"));
+
+        Item reloaded = itemService.findById(item.getId());
+        assertEquals("Renamed", reloaded.getName());
+        assertEquals(cached.getVersion() + 1, reloaded.getVersion());
+    }
+
+    @Test
+    void deleteById_ShouldEvictEntry() {
+        itemService.findById(item.getId());
+
+        itemService.deleteById(item.getId());
+
+        assertThrows(ItemNotFoundException.class, () -> itemService.findById(item.getId()));
+    }
+
+    @Test
+    void bulkStatusUpdate_ShouldEvictProcessedItems() {
+        itemService.findById(item.getId());
+
+        batchProcessor.processChunk(List.of(item.getId()));
+
+        assertEquals("PROCESSED", itemService.findById(item.getId()).getStatus());
+    }
+}
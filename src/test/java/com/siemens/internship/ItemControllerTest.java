@@ -1,7 +1,12 @@
 package com.siemens.internship;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.siemens.internship.deadletter.DeadLetterItem;
 import com.siemens.internship.exception.ItemNotFoundException;
+import com.siemens.internship.exception.ItemVersionConflictException;
+import com.siemens.internship.pipeline.PipelineSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,13 +16,21 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,6 +47,9 @@ public class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemBulkService bulkService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -62,6 +78,112 @@ public class ItemControllerTest {
         verify(itemService).findAll();
     }
 
+    @Test
+    void getAllItems_WithLimit_ShouldReturnKeysetPage() throws Exception {
+        when(itemService.findPage(0L, 2)).thenReturn(testItems);
+
+        mockMvc.perform(get("/api/items").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-After", "2"))
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        verify(itemService, never()).findAll();
+    }
+
+    @Test
+    void getAllItems_WhenLastPage_ShouldOmitNextCursor() throws Exception {
+        when(itemService.findPage(1L, 10)).thenReturn(List.of(testItems.get(1)));
+
+        mockMvc.perform(get("/api/items").param("after", "1").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-After"))
+                .andExpect(jsonPath("$[0].id", is(2)));
+    }
+
+    @Test
+    void getAllItems_WithInvalidLimit_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/items").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemService);
+    }
+
+    @Test
+    void getAllItems_WithFilters_ShouldReturnSummaryPage() throws Exception {
+        ItemFilter filter = new ItemFilter("NEW", null, "Item");
+        when(itemService.search(filter, 0L, 1)).thenReturn(List.of(
+                new ItemSummary(1L, "Test Item", "NEW", "test@email.com", 0L)));
+
+        mockMvc.perform(get("/api/items").param("status", "NEW").param("name", "Item").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.NEXT_AFTER_HEADER, "1"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email", is("test@email.com")))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+
+        verify(itemService, never()).findAll();
+    }
+
+    @Test
+    void exportItems_ShouldStreamJsonArray() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Item> consumer = invocation.getArgument(0);
+            testItems.forEach(consumer);
+            return null;
+        }).when(itemService).streamAll(any());
+
+        mockMvc.perform(get("/api/items/export"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].name", is("Second Item")));
+    }
+
+    @Test
+    void exportItems_WithCborAccept_ShouldStreamCborArray() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Item> consumer = invocation.getArgument(0);
+            testItems.forEach(consumer);
+            return null;
+        }).when(itemService).streamAll(any());
+
+        byte[] body = mockMvc.perform(get("/api/items/export").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        Item[] items = new CBORMapper().readValue(body, Item[].class);
+        assertEquals("Second Item", items[1].getName());
+    }
+
+    @Test
+    void exportItems_ShouldPreferTheTypeWithTheHighestQuality() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Item> consumer = invocation.getArgument(0);
+            testItems.forEach(consumer);
+            return null;
+        }).when(itemService).streamAll(any());
+
+        byte[] body = mockMvc.perform(get("/api/items/export")
+                        .header("Accept", "application/cbor;q=0.5, application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ItemContentConfiguration.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(2, new SmileMapper().readValue(body, Item[].class).length);
+    }
+
+    @Test
+    void getAllItems_WithSmileAccept_ShouldReturnSmile() throws Exception {
+        when(itemService.findAll()).thenReturn(testItems);
+
+        byte[] body = mockMvc.perform(get("/api/items").accept(ItemContentConfiguration.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ItemContentConfiguration.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Item[] items = new SmileMapper().readValue(body, Item[].class);
+        assertEquals(2, items.length);
+        assertEquals("Test Item", items[0].getName());
+    }
+
     @Test
     void getItemById_WhenItemExists_ShouldReturnItem() throws Exception {
         when(itemService.findById(1L)).thenReturn(testItem);
@@ -86,21 +208,34 @@ public class ItemControllerTest {
 
     @Test
     void createItem_WithValidItem_ShouldReturnCreatedItem() throws Exception {
-        when(itemService.save(any(Item.class))).thenReturn(testItem);
+        when(itemService.create(any(Item.class))).thenReturn(CompletableFuture.completedFuture(testItem));
 
-        mockMvc.perform(post("/api/items")
+        MvcResult mvcResult = mockMvc.perform(post("/api/items")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(testItem)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.name", is("Test Item")));
 
-        verify(itemService).save(any(Item.class));
+        verify(itemService).create(any(Item.class));
+    }
+
+    @Test
+    void createItem_WhenWriteBehindQueueIsFull_ShouldReturnServiceUnavailable() throws Exception {
+        when(itemService.create(any(Item.class))).thenThrow(new RejectedExecutionException("queue full"));
+
+        mockMvc.perform(post("/api/items")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testItem)))
+                .andExpect(status().isServiceUnavailable());
     }
 
     @Test
     void updateItem_WhenItemExists_ShouldReturnUpdatedItem() throws Exception {
-        when(itemService.findById(1L)).thenReturn(testItem);
-        when(itemService.save(any(Item.class))).thenReturn(testItem);
+        when(itemService.update(eq(1L), any(Item.class))).thenReturn(testItem);
 
         mockMvc.perform(put("/api/items/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -108,20 +243,47 @@ public class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name", is("Test Item")));
 
-        verify(itemService).findById(1L);
-        verify(itemService).save(any(Item.class));
+        verify(itemService).update(eq(1L), any(Item.class));
+        verify(itemService, never()).findById(anyLong());
+    }
+
+    @Test
+    void updateItem_WhenVersionIsStale_ShouldReturnConflict() throws Exception {
+        when(itemService.update(eq(1L), any(Item.class))).thenThrow(new ItemVersionConflictException(1L, 3L));
+
+        mockMvc.perform(put("/api/items/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testItem)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void updateItem_WhenItemDoesNotExist_ShouldReturnNotFound() throws Exception {
+        when(itemService.update(eq(99L), any(Item.class))).thenThrow(new ItemNotFoundException(99L));
+
+        mockMvc.perform(put("/api/items/99")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testItem)))
+                .andExpect(status().isNotFound());
     }
 
     @Test
     void deleteItem_WhenItemExists_ShouldReturnNoContent() throws Exception {
-        when(itemService.findById(1L)).thenReturn(testItem);
         doNothing().when(itemService).deleteById(1L);
 
         mockMvc.perform(delete("/api/items/1"))
                 .andExpect(status().isNoContent());
 
-        verify(itemService).findById(1L);
         verify(itemService).deleteById(1L);
+        verify(itemService, never()).findById(anyLong());
+    }
+
+    @Test
+    void deleteItem_WhenItemDoesNotExist_ShouldReturnNotFound() throws Exception {
+        doThrow(new ItemNotFoundException(99L)).when(itemService).deleteById(99L);
+
+        mockMvc.perform(delete("/api/items/99"))
+                .andExpect(status().isNotFound());
     }
 
     @Test
@@ -136,8 +298,9 @@ public class ItemControllerTest {
                 ))
                 .collect(Collectors.toList());
 
-        CompletableFuture<List<Item>> future = CompletableFuture.completedFuture(processedItems);
-        when(itemService.processItemsAsync()).thenReturn(future);
+        CompletableFuture<ItemProcessingResult> future =
+                CompletableFuture.completedFuture(new ItemProcessingResult(processedItems, List.of()));
+        when(itemService.processItemsAsync(ProcessingMode.FULL)).thenReturn(future);
 
         MvcResult mvcResult = mockMvc.perform(get("/api/items/process"))
                 .andExpect(request().asyncStarted())
@@ -151,7 +314,261 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[1].name", is("Second Item")))
                 .andExpect(jsonPath("$[1].status", is("PROCESSED")));
 
-        verify(itemService).processItemsAsync();
+        verify(itemService).processItemsAsync(ProcessingMode.FULL);
+    }
+
+    @Test
+    void processItems_WithDeadLetteredItems_ShouldReturn207() throws Exception {
+        DeadLetterItem deadLetter = new DeadLetterItem(2L, "per-item", 3, "java.sql.SQLTimeoutException", "timeout",
+                Instant.now());
+        when(itemService.processItemsAsync(ProcessingMode.FULL)).thenReturn(CompletableFuture.completedFuture(
+                new ItemProcessingResult(List.of(testItem), List.of(deadLetter))));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/items/process"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isMultiStatus())
+                .andExpect(header().string("X-Items-Failed", "1"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    @Test
+    void processItemsInBatches_ShouldReturnSummary() throws Exception {
+        when(itemService.processItemsInBatches(ProcessingMode.FULL))
+                .thenReturn(CompletableFuture.completedFuture(new ProcessingSummary(2, 1, 5)));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/items/process/batch"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed", is(2)))
+                .andExpect(jsonPath("$.chunks", is(1)));
+    }
+
+    @Test
+    void processItemsInBatches_WithIncrementalMode_ShouldOnlyProcessDueItems() throws Exception {
+        when(itemService.processItemsInBatches(ProcessingMode.INCREMENTAL))
+                .thenReturn(CompletableFuture.completedFuture(new ProcessingSummary(1, 1, 3)));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/items/process/batch").param("mode", "INCREMENTAL"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed", is(1)));
+        verify(itemService, never()).processItemsInBatches(ProcessingMode.FULL);
+    }
+
+    @Test
+    void processItemsInPipeline_ShouldReturnStageTimings() throws Exception {
+        PipelineSummary summary = new PipelineSummary(2, 0, 0, 5, List.of(
+                new PipelineSummary.Stage("fetch", 2, 200, 1, 2, 1, 0),
+                new PipelineSummary.Stage("transform", 4, 50, 1, 2, 0, 0),
+                new PipelineSummary.Stage("persist", 2, 100, 1, 2, 3, 0)));
+        when(itemService.processItemsInPipeline(ProcessingMode.FULL)).thenReturn(CompletableFuture.completedFuture(summary));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/items/process/pipeline"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed", is(2)))
+                .andExpect(jsonPath("$.stages[2].name", is("persist")))
+                .andExpect(jsonPath("$.stages[2].busyMillis", is(3)));
+    }
+
+    @Test
+    void getCacheStats_ShouldReturnCounters() throws Exception {
+        when(itemService.cacheStats()).thenReturn(new ItemCache.CacheStatsSnapshot(3, 1, 0.75, 0, 2));
+
+        mockMvc.perform(get("/api/items/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hitCount", is(3)))
+                .andExpect(jsonPath("$.missCount", is(1)))
+                .andExpect(jsonPath("$.hitRate", is(0.75)));
+    }
+
+    @Test
+    void getProcessingLimiter_ShouldReturnSnapshot() throws Exception {
+        when(itemService.limiterSnapshot()).thenReturn(new LimiterSnapshot(12, 3, 1));
+
+        mockMvc.perform(get("/api/items/process/limiter"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.limit", is(12)))
+                .andExpect(jsonPath("$.inFlight", is(3)))
+                .andExpect(jsonPath("$.rejected", is(1)));
+    }
+
+    @Test
+    void processItemsStreaming_ShouldWriteOneJsonLinePerItem() throws Exception {
+        when(itemService.processItems(eq(ProcessingMode.FULL), any())).thenAnswer(invocation -> {
+            Consumer<List<Item>> listener = invocation.getArgument(1);
+            listener.accept(testItems);
+            return new ProcessingSummary(2, 1, 5);
+        });
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/items/process/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Test Item", objectMapper.readValue(lines[0], Item.class).getName());
+        assertEquals("Second Item", objectMapper.readValue(lines[1], Item.class).getName());
+    }
+
+
+    @Test
+    void createItems_WhenSomeElementsFail_ShouldReturnMultiStatus() throws Exception {
+        when(bulkService.createAll(anyList())).thenReturn(ItemBatchResult.of(List.of(
+                new ItemBatchResult.Element(0, 10L, 201, null),
+                new ItemBatchResult.Element(1, null, 400, "email: Email must be valid"))));
+
+        mockMvc.perform(post("/api/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testItems)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.succeeded", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.results[1].error", is("email: Email must be valid")));
+    }
+
+    @Test
+    void createItems_WithCborBody_ShouldReadItems() throws Exception {
+        when(bulkService.createAll(argThat(items -> items.size() == 2 && "Second Item".equals(items.get(1).getName()))))
+                .thenReturn(ItemBatchResult.of(List.of(
+                        new ItemBatchResult.Element(0, 10L, 201, null),
+                        new ItemBatchResult.Element(1, 11L, 201, null))));
+
+        mockMvc.perform(post("/api/items/batch")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(new CBORMapper().writeValueAsBytes(testItems)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(2)));
+    }
+
+    @Test
+    void deleteItems_WhenAllSucceed_ShouldReturnOk() throws Exception {
+        when(bulkService.deleteAll(List.of(1L, 2L))).thenReturn(ItemBatchResult.of(List.of(
+                new ItemBatchResult.Element(0, 1L, 204, null),
+                new ItemBatchResult.Element(1, 2L, 204, null))));
+
+        mockMvc.perform(delete("/api/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(2)));
+
+        verify(itemService, never()).deleteById(anyLong());
     }
 
+    @Test
+    void getItemById_ShouldExposeVersionAsETag() throws Exception {
+        testItem.setVersion(3L);
+        when(itemService.findById(1L)).thenReturn(testItem);
+
+        mockMvc.perform(get("/api/items/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+
+    @Test
+    void getItemById_WhenETagMatches_ShouldReturnNotModifiedWithoutBody() throws Exception {
+        testItem.setVersion(3L);
+        when(itemService.findById(1L)).thenReturn(testItem);
+
+        mockMvc.perform(get("/api/items/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void updateItem_WithIfMatch_ShouldUpdateThatVersionOnly() throws Exception {
+        when(itemService.update(eq(1L), argThat(item -> Long.valueOf(3L).equals(item.getVersion()))))
+                .thenReturn(new Item(1L, "Test Item", "Description", "NEW", "test@email.com", 4L));
+
+        mockMvc.perform(put("/api/items/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testItem)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    void updateItem_WhenIfMatchIsStale_ShouldReturnPreconditionFailed() throws Exception {
+        when(itemService.update(eq(1L), any(Item.class))).thenThrow(new ItemVersionConflictException(1L, 3L));
+
+        mockMvc.perform(put("/api/items/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testItem)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateItem_WithWeakIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        mockMvc.perform(put("/api/items/1")
+                        .header("If-Match", "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testItem)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(itemService, never()).update(anyLong(), any(Item.class));
+    }
+
+    @Test
+    void updateItem_WithWildcardIfMatch_ShouldUpdateAnyVersion() throws Exception {
+        when(itemService.update(eq(1L), argThat(item -> item.getVersion() == null)))
+                .thenReturn(new Item(1L, "Test Item", "Description", "NEW", "test@email.com", 4L));
+
+        mockMvc.perform(put("/api/items/1")
+                        .header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testItem)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    void updateItem_WithWildcardIfMatch_WhenItemDoesNotExist_ShouldReturnPreconditionFailed() throws Exception {
+        when(itemService.update(eq(1L), any(Item.class))).thenThrow(new ItemNotFoundException(1L));
+
+        mockMvc.perform(put("/api/items/1")
+                        .header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testItem)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void deleteItem_WithWildcardIfMatch_WhenItemDoesNotExist_ShouldReturnPreconditionFailed() throws Exception {
+        doThrow(new ItemNotFoundException(1L)).when(itemService).delete(1L, null);
+
+        mockMvc.perform(delete("/api/items/1").header("If-Match", "*"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void deleteItem_WithIfMatch_ShouldDeleteThatVersionOnly() throws Exception {
+        doThrow(new ItemVersionConflictException(1L, 3L)).when(itemService).delete(1L, 3L);
+
+        mockMvc.perform(delete("/api/items/1").header("If-Match", "\"3\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(itemService, never()).deleteById(anyLong());
+    }
 }
@@ -0,0 +1,86 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ItemExecutorConfiguration.
+ */
+public class ItemExecutorConfigurationTest {
+
+    private final ItemExecutorConfiguration configuration = new ItemExecutorConfiguration();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void platformExecutor_ShouldWaitForRunningTasksOnShutdown() throws Exception {
+        Executor executor = configuration.itemProcessingExecutor(new ItemProcessingProperties(), registry);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean();
+
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(200);
+                finished.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        ((DisposableBean) executor).destroy();
+
+        assertTrue(finished.get());
+    }
+
+    @Test
+    void platformExecutor_ShouldPublishPoolMetricsAndCountRejections() throws Exception {
+        Executor executor = configuration.itemProcessingExecutor(new ItemProcessingProperties(), registry);
+        ((DisposableBean) executor).destroy();
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+
+        assertEquals(1, registry.get("item.processing.executor.rejected").counter().count());
+        assertNotNull(registry.get("executor.queued").tag("name", ItemExecutorConfiguration.ITEM_PROCESSING_EXECUTOR).gauge());
+        assertNotNull(registry.get("executor.active").tag("name", ItemExecutorConfiguration.ITEM_PROCESSING_EXECUTOR).gauge());
+    }
+
+    @Test
+    void springExecutor_ShouldBeThreadPoolTaskExecutor() {
+        ItemProcessingProperties properties = new ItemProcessingProperties();
+        properties.setExecutor(ItemProcessingProperties.ExecutorType.SPRING);
+        properties.setPoolSize(3);
+
+        Executor executor = configuration.itemProcessingExecutor(properties, registry);
+
+        ThreadPoolTaskExecutor taskExecutor = assertInstanceOf(ThreadPoolTaskExecutor.class, executor);
+        assertEquals(3, taskExecutor.getMaxPoolSize());
+    }
+
+    @Test
+    void virtualExecutor_ShouldRequireJava21() throws Exception {
+        ItemProcessingProperties properties = new ItemProcessingProperties();
+        properties.setExecutor(ItemProcessingProperties.ExecutorType.VIRTUAL);
+
+        if (Runtime.version().feature() < 21) {
+            assertThrows(IllegalStateException.class, () -> configuration.itemProcessingExecutor(properties, registry));
+            return;
+        }
+        Executor executor = configuration.itemProcessingExecutor(properties, registry);
+        CountDownLatch ran = new CountDownLatch(1);
+        executor.execute(ran::countDown);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        ((DisposableBean) executor).destroy();
+    }
+}
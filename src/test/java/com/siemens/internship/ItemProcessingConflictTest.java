@@ -0,0 +1,98 @@
+package com.siemens.internship;
+
+import com.siemens.internship.deadletter.DeadLetterItemRepository;
+import com.siemens.internship.pipeline.ItemProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for per-item processing losing a real version race against a concurrent writer.
+ */
+@SpringBootTest
+@Import(ItemProcessingConflictTest.ConcurrentWriterConfiguration.class)
+public class ItemProcessingConflictTest {
+
+    private static final String CONTENDED = "Contended";
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private DeadLetterItemRepository deadLetterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        deadLetterRepository.deleteAll();
+    }
+
+    @Test
+    void processItemsAsync_WhenAnotherWriterBumpsTheVersion_ShouldRetryAndProcessTheItem() throws Exception {
+        Item item = itemRepository.save(new Item(null, CONTENDED, null, "NEW", null));
+        double retriesBefore = retries();
+
+        ItemProcessingResult result = itemService.processItemsAsync(ProcessingMode.INCREMENTAL).get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of(item.getId()), result.processed().stream().map(Item::getId).toList());
+        assertTrue(result.failed().isEmpty());
+        assertEquals(1, retries() - retriesBefore);
+        assertTrue(deadLetterRepository.findAll().isEmpty());
+        // the concurrent write and the processing one
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT version FROM item WHERE id = ?", Long.class, item.getId()));
+    }
+
+    private double retries() {
+        return registry.get("item.processing.retries").counter().count();
+    }
+
+    /**
+     * Updates a contended item once from another connection while its processing transaction
+     * still holds the version it read.
+     */
+    @TestConfiguration
+    static class ConcurrentWriterConfiguration {
+
+        @Bean
+        ItemProcessor concurrentWriter(JdbcTemplate jdbcTemplate) {
+            Set<Long> written = ConcurrentHashMap.newKeySet();
+            return new ItemProcessor() {
+                @Override
+                public String name() {
+                    return "ConcurrentWriter";
+                }
+
+                @Override
+                public void process(Item item) {
+                    if (CONTENDED.equals(item.getName()) && written.add(item.getId())) {
+                        CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                                "UPDATE item SET version = version + 1 WHERE id = ?", item.getId())).join();
+                    }
+                }
+            };
+        }
+    }
+}
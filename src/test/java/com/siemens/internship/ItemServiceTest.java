@@ -1,24 +1,53 @@
 package com.siemens.internship;
 
+import com.siemens.internship.cluster.ItemClusterProperties;
+import com.siemens.internship.cluster.ItemLeaseManager;
+import com.siemens.internship.deadletter.DeadLetterItem;
+import com.siemens.internship.deadletter.DeadLetterStore;
+import com.siemens.internship.exception.ItemNotFoundException;
+import com.siemens.internship.exception.ItemVersionConflictException;
+import com.siemens.internship.change.ItemChangeLog;
+import com.siemens.internship.change.ItemChangeType;
+import com.siemens.internship.pipeline.EmailNormalizer;
+import com.siemens.internship.pipeline.ItemPipeline;
+import com.siemens.internship.pipeline.ItemProcessorChain;
+import com.siemens.internship.pipeline.PipelineSummary;
+import com.siemens.internship.store.JpaItemStore;
+import com.siemens.internship.writebehind.ItemWriteBehindQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 import java.time.Duration;
+import java.time.Instant;
 
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -30,7 +59,33 @@ public class ItemServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
-    @InjectMocks
+    @Mock
+    private ItemBatchProcessor batchProcessor;
+
+    @Mock
+    private ItemPipeline pipeline;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ItemChangeLog changeLog;
+
+    @Mock
+    private DeadLetterStore deadLetterStore;
+
+    @Mock
+    private ItemWriteBehindQueue writeBehind;
+
+    private ExecutorService executor;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ItemCache itemCache = new ItemCache(new ConcurrentMapCacheManager(ItemCacheConfiguration.ITEMS_CACHE));
+
     private ItemService itemService;
 
     private Item testItem;
@@ -38,6 +93,8 @@ public class ItemServiceTest {
 
     @BeforeEach
     void setUp() {
+        executor = Executors.newFixedThreadPool(10);
+        itemService = createService(new ItemProcessingProperties());
         testItem = new Item(1L, "Test Item", "Description", "NEW", "test@email.com");
         testItems = Arrays.asList(
                 testItem,
@@ -45,6 +102,23 @@ public class ItemServiceTest {
         );
     }
 
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private ItemService createService(ItemProcessingProperties properties) {
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        RetryPolicy retryPolicy = new RetryPolicy(properties, registry);
+        return new ItemService(itemRepository, new JpaItemStore(itemRepository, transactionTemplate), batchProcessor, pipeline,
+                new ItemProcessorChain(List.of(new EmailNormalizer()), registry), entityManager,
+                transactionTemplate, executor, new AdaptiveConcurrencyLimiter(properties), itemCache,
+                changeLog, retryPolicy, deadLetterStore,
+                new ItemLeaseManager(itemRepository, transactionTemplate, retryPolicy, new ItemClusterProperties()),
+                writeBehind, properties, registry);
+    }
+
     @Test
     void findAll_ShouldReturnAllItems() {
         when(itemRepository.findAll()).thenReturn(testItems);
@@ -55,6 +129,17 @@ public class ItemServiceTest {
         verify(itemRepository, times(1)).findAll();
     }
 
+    @Test
+    void findPage_ShouldUseKeysetQuery() {
+        when(itemRepository.findPageAfter(eq(1L), any(Limit.class))).thenReturn(List.of(testItems.get(1)));
+
+        List<Item> result = itemService.findPage(1L, 10);
+
+        assertEquals(1, result.size());
+        verify(itemRepository).findPageAfter(1L, Limit.of(10));
+        verify(itemRepository, never()).findAll();
+    }
+
     @Test
     void findById_WhenItemExists_ShouldReturnItem() {
         when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
@@ -66,19 +151,99 @@ public class ItemServiceTest {
 
     @Test
     void save_ShouldReturnSavedItem() {
-        when(itemRepository.save(any(Item.class))).thenReturn(testItem);
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(testItem);
 
         Item result = itemService.save(testItem);
 
         assertNotNull(result);
         assertEquals(testItem.getName(), result.getName());
+        verify(changeLog).record(ItemChangeType.UPDATED, testItem);
+    }
+
+    @Test
+    void create_ShouldInsertInOwnTransactionByDefault() throws Exception {
+        Item item = new Item(5L, "New", null, "NEW", "new@email.com", 3L);
+        when(itemRepository.saveAndFlush(item)).thenReturn(item);
+
+        Item result = itemService.create(item).get(5, TimeUnit.SECONDS);
+
+        assertSame(item, result);
+        assertNull(item.getVersion());
+        verify(itemRepository).saveAndFlush(argThat(saved -> saved.getId() == null));
+        verify(changeLog).record(ItemChangeType.CREATED, item);
+        verify(transactionManager).commit(any());
+        verify(writeBehind, never()).submit(any());
     }
 
     @Test
-    void deleteById_ShouldCallRepository() {
+    void create_ShouldQueueItemWhenWriteBehindIsEnabled() {
+        Item item = new Item(5L, "New", null, "NEW", "new@email.com");
+        CompletableFuture<Item> queued = new CompletableFuture<>();
+        when(writeBehind.isEnabled()).thenReturn(true);
+        when(writeBehind.submit(item)).thenReturn(queued);
+
+        assertSame(queued, itemService.create(item));
+        assertNull(item.getId());
+        verify(itemRepository, never()).saveAndFlush(any(Item.class));
+    }
+
+    @Test
+    void deleteById_ShouldIssueSingleConditionalDelete() {
+        when(itemRepository.deleteIfVersion(1L, null)).thenReturn(1);
+
         itemService.deleteById(1L);
 
-        verify(itemRepository, times(1)).deleteById(1L);
+        verify(itemRepository, times(1)).deleteIfVersion(1L, null);
+        verify(itemRepository, never()).findById(anyLong());
+        verify(changeLog).recordDeleted(List.of(1L));
+    }
+
+    @Test
+    void deleteById_WhenNothingDeleted_ShouldThrowNotFound() {
+        when(itemRepository.deleteIfVersion(1L, null)).thenReturn(0);
+
+        assertThrows(ItemNotFoundException.class, () -> itemService.deleteById(1L));
+    }
+
+    @Test
+    void update_WithVersion_ShouldUseOneStatementAndBumpVersion() {
+        Item item = new Item(null, "Renamed", null, "NEW", "test@email.com", 3L);
+        when(itemRepository.updateIfVersion(eq(1L), eq("Renamed"), isNull(), eq("NEW"), eq("test@email.com"), eq(3L), any(Instant.class))).thenReturn(1);
+
+        Item result = itemService.update(1L, item);
+
+        assertEquals(1L, result.getId());
+        assertEquals(4L, result.getVersion());
+        verify(itemRepository, never()).findVersionById(anyLong());
+        verify(itemRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void update_WithoutVersion_ShouldReadBackNewVersion() {
+        when(itemRepository.updateIfVersion(eq(1L), any(), any(), any(), any(), isNull(), any(Instant.class))).thenReturn(1);
+        when(itemRepository.findVersionById(1L)).thenReturn(Optional.of(7L));
+
+        Item result = itemService.update(1L, new Item(null, "Renamed", null, "NEW", null));
+
+        assertEquals(7L, result.getVersion());
+    }
+
+    @Test
+    void update_WhenVersionIsStale_ShouldThrowConflict() {
+        when(itemRepository.updateIfVersion(eq(1L), any(), any(), any(), any(), eq(3L), any(Instant.class))).thenReturn(0);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(ItemVersionConflictException.class,
+                () -> itemService.update(1L, new Item(null, "Renamed", null, "NEW", null, 3L)));
+    }
+
+    @Test
+    void update_WhenItemDoesNotExist_ShouldThrowNotFound() {
+        when(itemRepository.updateIfVersion(eq(1L), any(), any(), any(), any(), isNull(), any(Instant.class))).thenReturn(0);
+
+        assertThrows(ItemNotFoundException.class,
+                () -> itemService.update(1L, new Item(null, "Renamed", null, "NEW", null)));
+        verify(itemRepository, never()).existsById(anyLong());
     }
 
     @Test
@@ -86,10 +251,10 @@ public class ItemServiceTest {
         List<Long> ids = Arrays.asList(1L, 2L);
         when(itemRepository.findAllIds()).thenReturn(ids);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(testItem));
-        when(itemRepository.save(any(Item.class))).thenReturn(testItem);
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(testItem);
 
-        CompletableFuture<List<Item>> future = itemService.processItemsAsync();
-        List<Item> result = future.get(5, TimeUnit.SECONDS);
+        CompletableFuture<ItemProcessingResult> future = itemService.processItemsAsync();
+        List<Item> result = future.get(5, TimeUnit.SECONDS).processed();
 
         assertNotNull(result);
         assertEquals(2, result.size());
@@ -97,7 +262,9 @@ public class ItemServiceTest {
         assertEquals("PROCESSED", result.get(1).getStatus());
         verify(itemRepository, times(1)).findAllIds();
         verify(itemRepository, times(2)).findById(anyLong());
-        verify(itemRepository, times(2)).save(any(Item.class));
+        verify(itemRepository, times(2)).saveAndFlush(any(Item.class));
+        assertEquals(2, registry.get("item.processing.items").tag("outcome", "processed").counter().count());
+        assertEquals(2, registry.get("item.processing.item.duration").timer().count());
     }
 
     @Test
@@ -108,18 +275,196 @@ public class ItemServiceTest {
         }
         when(itemRepository.findAllIds()).thenReturn(ids);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(testItem));
-        when(itemRepository.save(any(Item.class))).thenReturn(testItem);
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(testItem);
 
         assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
-            CompletableFuture<List<Item>> future = itemService.processItemsAsync();
-            List<Item> result = future.get();
+            CompletableFuture<ItemProcessingResult> future = itemService.processItemsAsync();
+            List<Item> result = future.get().processed();
 
             assertNotNull(result);
             assertEquals(1000, result.size());
             assertTrue(result.stream().allMatch(item -> "PROCESSED".equals(item.getStatus())));
             verify(itemRepository, times(1)).findAllIds();
             verify(itemRepository, times(1000)).findById(anyLong());
-            verify(itemRepository, times(1000)).save(any(Item.class));
+            verify(itemRepository, times(1000)).saveAndFlush(any(Item.class));
         });
     }
+
+    @Test
+    void processItemsAsync_ShouldRunProcessorChain() throws Exception {
+        when(itemRepository.findAllIds()).thenReturn(List.of(3L));
+        when(itemRepository.findById(3L)).thenReturn(Optional.of(new Item(3L, "Item", null, "NEW", " Mixed@Example.COM ")));
+        when(itemRepository.saveAndFlush(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Item> result = itemService.processItemsAsync().get(5, TimeUnit.SECONDS).processed();
+
+        assertEquals("mixed@example.com", result.get(0).getEmail());
+        assertEquals(1, registry.get("item.pipeline.processor.duration").tag("processor", "EmailNormalizer").timer().count());
+    }
+
+    @Test
+    void processItemsInPipeline_ShouldDelegateToPipeline() throws Exception {
+        PipelineSummary summary = new PipelineSummary(2, 0, 0, 10, List.of());
+        when(pipeline.run(eq(ProcessingMode.INCREMENTAL), any(Consumer.class))).thenReturn(summary);
+
+        assertEquals(summary, itemService.processItemsInPipeline(ProcessingMode.INCREMENTAL).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void processItemsInBatches_ShouldDelegateToBatchProcessor() throws Exception {
+        ProcessingSummary summary = new ProcessingSummary(2, 1, 10);
+        when(batchProcessor.processAll(eq(ProcessingMode.FULL), any(Consumer.class))).thenReturn(summary);
+
+        ProcessingSummary result = itemService.processItemsInBatches().get(5, TimeUnit.SECONDS);
+
+        assertEquals(summary, result);
+        verify(batchProcessor).processAll(eq(ProcessingMode.FULL), any(Consumer.class));
+    }
+
+    @Test
+    void processItemsInBatches_ShouldShareRunInFlight() throws Exception {
+        ProcessingSummary summary = new ProcessingSummary(2, 1, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        when(batchProcessor.processAll(eq(ProcessingMode.FULL), any(Consumer.class))).thenAnswer(invocation -> {
+            release.await();
+            return summary;
+        });
+
+        CompletableFuture<ProcessingSummary> first = itemService.processItemsInBatches();
+        CompletableFuture<ProcessingSummary> second = itemService.processItemsInBatches();
+        release.countDown();
+
+        assertEquals(summary, first.get(5, TimeUnit.SECONDS));
+        assertEquals(summary, second.get(5, TimeUnit.SECONDS));
+        verify(batchProcessor, times(1)).processAll(eq(ProcessingMode.FULL), any(Consumer.class));
+        assertEquals(1, registry.get("item.processing.coalesced").tag("run", "batch").counter().count());
+    }
+
+    @Test
+    void processItemsAsync_ShouldShareRunInFlightPerMode() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(itemRepository.findAllIds()).thenAnswer(invocation -> {
+            release.await();
+            return List.of(1L);
+        });
+        when(itemRepository.findUnprocessedIds()).thenReturn(List.of());
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(itemRepository.saveAndFlush(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CompletableFuture<ItemProcessingResult> first = itemService.processItemsAsync();
+        CompletableFuture<ItemProcessingResult> second = itemService.processItemsAsync();
+        // a different mode is different work and gets its own run
+        ItemProcessingResult incremental = itemService.processItemsAsync(ProcessingMode.INCREMENTAL)
+                .get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertTrue(incremental.processed().isEmpty());
+        assertEquals(List.of(testItem), first.get(5, TimeUnit.SECONDS).processed());
+        assertEquals(List.of(testItem), second.get(5, TimeUnit.SECONDS).processed());
+        verify(itemRepository, times(1)).findAllIds();
+        verify(itemRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void processItemsAsync_Incremental_ShouldOnlyLoadUnprocessedItems() throws Exception {
+        when(itemRepository.findUnprocessedIds()).thenReturn(List.of(2L));
+        when(itemRepository.findById(2L)).thenReturn(Optional.of(new Item(2L, "Changed", null, "NEW", null)));
+        when(itemRepository.saveAndFlush(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Item> result = itemService.processItemsAsync(ProcessingMode.INCREMENTAL).get(5, TimeUnit.SECONDS).processed();
+
+        assertEquals(1, result.size());
+        assertEquals("PROCESSED", result.get(0).getStatus());
+        assertNotNull(result.get(0).getProcessedAt());
+        verify(itemRepository, never()).findAllIds();
+    }
+
+    @Test
+    void processItemsAsync_ShouldNotExceedDatabaseConcurrency() throws Exception {
+        ItemProcessingProperties properties = new ItemProcessingProperties();
+        properties.setMaxDbConcurrency(2);
+        itemService = createService(properties);
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= 20; i++) {
+            ids.add(i);
+        }
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(itemRepository.findAllIds()).thenReturn(ids);
+        when(itemRepository.findById(anyLong())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            return Optional.of(new Item(invocation.getArgument(0), "Item", null, "NEW", null));
+        });
+        when(itemRepository.saveAndFlush(any(Item.class))).thenAnswer(invocation -> {
+            inFlight.decrementAndGet();
+            return invocation.getArgument(0);
+        });
+
+        List<Item> result = itemService.processItemsAsync().get(10, TimeUnit.SECONDS).processed();
+
+        assertEquals(20, result.size());
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    void processItemsAsync_WhenAnItemKeepsFailing_ShouldDeadLetterItAndKeepTheOthers() throws Exception {
+        DeadLetterItem deadLetter = new DeadLetterItem(1L, "per-item", 1, "java.lang.IllegalStateException", "bad row",
+                Instant.now());
+        when(itemRepository.findAllIds()).thenReturn(Arrays.asList(1L, 2L));
+        when(itemRepository.findById(1L)).thenThrow(new IllegalStateException("bad row"));
+        when(itemRepository.findById(2L)).thenReturn(Optional.of(new Item(2L, "Fine", null, "NEW", null)));
+        when(itemRepository.saveAndFlush(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(deadLetterStore.record(eq(1L), eq("per-item"), eq(1), any(IllegalStateException.class))).thenReturn(deadLetter);
+
+        ItemProcessingResult result = itemService.processItemsAsync().get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(2L), result.processed().stream().map(Item::getId).toList());
+        assertEquals(List.of(deadLetter), result.failed());
+        // not a transient error, so not retried
+        verify(itemRepository, times(1)).findById(1L);
+        assertEquals(1, registry.get("item.processing.items").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void processItemsAsync_WhenErrorIsTransient_ShouldRetry() throws Exception {
+        when(itemRepository.findAllIds()).thenReturn(List.of(1L));
+        when(itemRepository.findById(1L))
+                .thenThrow(new QueryTimeoutException("lock timeout"))
+                .thenReturn(Optional.of(testItem));
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(testItem);
+
+        ItemProcessingResult result = itemService.processItemsAsync().get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, result.processed().size());
+        assertTrue(result.failed().isEmpty());
+        assertEquals(1, registry.get("item.processing.retries").counter().count());
+        verifyNoInteractions(deadLetterStore);
+    }
+
+    @Test
+    void processItemsAsync_WhenTransientErrorPersists_ShouldDeadLetterAfterMaxAttempts() throws Exception {
+        when(itemRepository.findAllIds()).thenReturn(List.of(1L));
+        when(itemRepository.findById(1L)).thenThrow(new QueryTimeoutException("lock timeout"));
+
+        itemService.processItemsAsync().get(5, TimeUnit.SECONDS);
+
+        verify(itemRepository, times(3)).findById(1L);
+        verify(deadLetterStore).record(eq(1L), eq("per-item"), eq(3), any(QueryTimeoutException.class));
+    }
+
+    @Test
+    void processItemsAsync_WhenDeadLetterWriteFails_ShouldCompleteExceptionally() {
+        when(itemRepository.findAllIds()).thenReturn(Arrays.asList(1L, 2L));
+        when(itemRepository.findById(anyLong())).thenThrow(new IllegalStateException("bad row"));
+        when(deadLetterStore.record(anyLong(), anyString(), anyInt(), any())).thenThrow(new IllegalStateException("db down"));
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> itemService.processItemsAsync().get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        assertEquals("db down", ex.getCause().getMessage());
+        assertEquals(0, itemService.limiterSnapshot().inFlight());
+        assertTrue(registry.get("item.processing.items").tag("outcome", "failed").counter().count() >= 1);
+    }
 }
@@ -0,0 +1,89 @@
+package com.siemens.internship;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ItemValidator and the ValidEmail constraint.
+ */
+public class ItemValidatorTest {
+
+    // the pattern ValidEmail replaced, which the hand-written check must agree with
+    private static final Pattern FORMER_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+
+    private final ItemValidator validator = new ItemValidator();
+
+    @Test
+    void isValidEmail_ShouldAgreeWithFormerPattern() {
+        List<String> samples = List.of("user@example.com", "first.last+tag@sub.example.org", "a@b", "user@", "@example.com",
+                "", "user", "us er@example.com", "user@exa mple.com", "user@@example.com", "user@example.com\n",
+                "user@ ", "user\n@example.com", "üser@example.com", "user@ëxample.com", "-_.+@-", "a@\r\n",
+                "user@example.com\u0085", "user@a@b");
+        for (String sample : samples) {
+            assertEquals(FORMER_PATTERN.matcher(sample).matches(), ItemValidator.isValidEmail(sample), sample);
+        }
+
+        Random random = new Random(42);
+        String alphabet = "aZ9+_.-@ \n\r\u0085 é";
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder sample = new StringBuilder();
+            for (int length = random.nextInt(8); length > 0; length--) {
+                sample.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertEquals(FORMER_PATTERN.matcher(sample).matches(), ItemValidator.isValidEmail(sample), sample.toString());
+        }
+    }
+
+    @Test
+    void validate_ShouldReturnViolatedConstraints() {
+        assertEquals(0, validator.validate(new Item(1L, "Item", null, "NEW", null)));
+        assertEquals(ItemValidator.NAME_EMPTY, validator.validate(new Item(1L, "", null, "NEW", "user@example.com")));
+        assertEquals(ItemValidator.NAME_EMPTY | ItemValidator.EMAIL_INVALID,
+                validator.validate(new Item(1L, null, null, "NEW", "invalid")));
+    }
+
+    @Test
+    void describe_ShouldRenderViolationsSortedByField() {
+        assertNull(ItemValidator.describe(0));
+        assertEquals("name: must not be empty", ItemValidator.describe(ItemValidator.NAME_EMPTY));
+        assertEquals("email: Email must be valid, name: must not be empty",
+                ItemValidator.describe(ItemValidator.NAME_EMPTY | ItemValidator.EMAIL_INVALID));
+    }
+
+    @Test
+    void validateAll_ShouldCollectFieldErrorsInOnePass() {
+        List<ItemValidator.FieldError> errors = validator.validateAll(List.of(
+                new Item(null, "Valid", null, "NEW", "user@example.com"),
+                new Item(null, "", null, "NEW", "invalid"),
+                new Item(null, "Valid", null, "NEW", "@example.com")));
+
+        assertEquals(List.of(
+                new ItemValidator.FieldError(1, "email", "Email must be valid"),
+                new ItemValidator.FieldError(1, "name", "must not be empty"),
+                new ItemValidator.FieldError(2, "email", "Email must be valid")), errors);
+        assertSame(List.of(), validator.validateAll(List.of(new Item(null, "Valid", null, "NEW", null))));
+    }
+
+    @Test
+    void validEmail_ShouldBeCheckedByBeanValidation() {
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Set<ConstraintViolation<Item>> violations = factory.getValidator()
+                    .validate(new Item(null, "Item", null, "NEW", "invalid"));
+
+            assertEquals(1, violations.size());
+            ConstraintViolation<Item> violation = violations.iterator().next();
+            assertEquals("email", violation.getPropertyPath().toString());
+            assertEquals("Email must be valid", violation.getMessage());
+            assertTrue(factory.getValidator().validate(new Item(null, "Item", null, "NEW", "user@example.com")).isEmpty());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.siemens.internship;
+
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for gzip response compression combined with binary content negotiation, against the
+ * embedded server: MockMvc bypasses the connector, which is where compression happens.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ResponseCompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        itemRepository.saveAll(IntStream.rangeClosed(1, 200)
+                .mapToObj(i -> new Item(null, "Item " + i, "Compressible description", "NEW", "user" + i + "@example.com"))
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void getAllItems_WithGzipAndSmile_ShouldReturnCompressedSmile() throws Exception {
+        HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/items"))
+                .header("Accept", ItemContentConfiguration.APPLICATION_SMILE_VALUE)
+                .header("Accept-Encoding", "gzip")
+                .build(), HttpResponse.BodyHandlers.ofInputStream());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        assertEquals(ItemContentConfiguration.APPLICATION_SMILE_VALUE, response.headers().firstValue("Content-Type").orElse(null));
+        try (InputStream body = new GZIPInputStream(response.body())) {
+            Item[] items = new SmileMapper().readValue(body, Item[].class);
+            assertEquals(200, items.length);
+        }
+    }
+
+    @Test
+    void getAllItems_WithoutAcceptEncoding_ShouldReturnPlainJson() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/items"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+        assertTrue(response.body().startsWith("["));
+    }
+}
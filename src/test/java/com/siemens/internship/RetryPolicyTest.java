@@ -0,0 +1,88 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RetryPolicy.
+ */
+public class RetryPolicyTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private RetryPolicy retryPolicy;
+
+    @BeforeEach
+    void setUp() {
+        ItemProcessingProperties properties = new ItemProcessingProperties();
+        properties.getRetry().setMaxAttempts(4);
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(4));
+        retryPolicy = new RetryPolicy(properties, registry);
+    }
+
+    @Test
+    void execute_ShouldRetryTransientErrorsUntilSuccess() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retryPolicy.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new PessimisticLockingFailureException("deadlock");
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, registry.get("item.processing.retries").counter().count());
+    }
+
+    @Test
+    void execute_ShouldGiveUpAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        RetryPolicy.Failure failure = assertThrows(RetryPolicy.Failure.class, () -> retryPolicy.execute(() -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Item.class, 1L);
+        }));
+
+        assertEquals(4, calls.get());
+        assertEquals(4, failure.getAttempts());
+        assertTrue(failure.isTransient());
+    }
+
+    @Test
+    void execute_ShouldNotRetryOtherErrors() {
+        AtomicInteger calls = new AtomicInteger();
+
+        RetryPolicy.Failure failure = assertThrows(RetryPolicy.Failure.class, () -> retryPolicy.execute(() -> {
+            calls.incrementAndGet();
+            throw new DataIntegrityViolationException("duplicate key");
+        }));
+
+        assertEquals(1, calls.get());
+        assertEquals(1, failure.getAttempts());
+        assertFalse(failure.isTransient());
+        assertInstanceOf(DataIntegrityViolationException.class, failure.getCause());
+    }
+
+    @Test
+    void isTransient_ShouldAcceptUntranslatedJpaLockErrors() {
+        assertTrue(RetryPolicy.isTransient(new OptimisticLockException("stale")));
+        assertTrue(RetryPolicy.isTransient(new PessimisticLockException("locked")));
+        assertTrue(RetryPolicy.isTransient(new IllegalStateException(new LockTimeoutException("timeout"))));
+        assertFalse(RetryPolicy.isTransient(new IllegalStateException("bad row")));
+    }
+}
@@ -0,0 +1,97 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight.
+ */
+public class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", registry);
+
+    @Test
+    void run_ShouldAttachConcurrentRequestsToRunInFlight() throws Exception {
+        AtomicInteger starts = new AtomicInteger();
+        CompletableFuture<String> run = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.run("key", () -> {
+            starts.incrementAndGet();
+            return run;
+        });
+        CompletableFuture<String> second = singleFlight.run("key", () -> {
+            starts.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        run.complete("result");
+
+        assertEquals("result", first.get());
+        assertEquals("result", second.get());
+        assertEquals(1, starts.get());
+        assertEquals(1, registry.get("item.processing.coalesced").tag("run", "test").counter().count());
+    }
+
+    @Test
+    void run_ShouldStartNewRunOnceRunCompleted() throws Exception {
+        AtomicInteger starts = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            singleFlight.run("key", () -> CompletableFuture.completedFuture("run " + starts.incrementAndGet())).get();
+        }
+
+        assertEquals(2, starts.get());
+    }
+
+    @Test
+    void run_ShouldKeepKeysApart() throws Exception {
+        CompletableFuture<String> run = new CompletableFuture<>();
+        singleFlight.run("a", () -> run);
+
+        assertEquals("b", singleFlight.run("b", () -> CompletableFuture.completedFuture("b")).get());
+        run.complete("a");
+    }
+
+    @Test
+    void run_ShouldShareFailureAndThenAllowRetry() throws Exception {
+        CompletableFuture<String> run = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.run("key", () -> run);
+        CompletableFuture<String> second = singleFlight.run("key", () -> run);
+
+        run.completeExceptionally(new IllegalStateException("boom"));
+
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, first::get).getCause());
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, second::get).getCause());
+        assertEquals("retried", singleFlight.run("key", () -> CompletableFuture.completedFuture("retried")).get());
+    }
+
+    @Test
+    void run_ShouldReportStartFailureAsFailedFuture() throws Exception {
+        CompletableFuture<String> failed = singleFlight.run("key", () -> {
+            throw new IllegalStateException("no executor");
+        });
+
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, failed::get).getCause());
+        assertEquals("ok", singleFlight.run("key", () -> CompletableFuture.completedFuture("ok")).get());
+    }
+
+    @Test
+    void run_ShouldNotLetOneCallerCancelTheRunOfOthers() throws Exception {
+        CompletableFuture<String> run = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.run("key", () -> run);
+        CompletableFuture<String> second = singleFlight.run("key", () -> run);
+
+        first.cancel(true);
+        run.complete("result");
+
+        assertFalse(run.isCancelled());
+        assertEquals("result", second.get());
+    }
+}
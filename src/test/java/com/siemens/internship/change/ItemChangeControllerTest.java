@@ -0,0 +1,65 @@
+package com.siemens.internship.change;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for ItemChangeController.
+ */
+@WebMvcTest(ItemChangeController.class)
+public class ItemChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ItemChangeLog changeLog;
+
+    @Test
+    void getChanges_ShouldReturnPageFromLongPoll() throws Exception {
+        ItemChange change = new ItemChange(7L, ItemChangeType.UPDATED, 2L, Instant.now());
+        change.setSeq(42L);
+        DeferredResult<ItemChangePage> result = new DeferredResult<>();
+        result.setResult(ItemChangePage.of(List.of(change), 41L));
+        when(changeLog.poll(41L, 10, Duration.ofSeconds(5))).thenReturn(result);
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/items/changes")
+                        .param("since", "41").param("limit", "10").param("wait", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(1)))
+                .andExpect(jsonPath("$.changes[0].itemId", is(7)))
+                .andExpect(jsonPath("$.changes[0].type", is("UPDATED")))
+                .andExpect(jsonPath("$.next", is(42)));
+    }
+
+    @Test
+    void getChanges_WithInvalidWait_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/items/changes").param("wait", "600"))
+                .andExpect(status().isBadRequest());
+
+        verify(changeLog, never()).poll(anyLong(), anyInt(), any());
+    }
+}
@@ -0,0 +1,127 @@
+package com.siemens.internship.change;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemRepository;
+import com.siemens.internship.ItemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for ItemChangeLog: outbox writes, visibility and the long poll.
+ */
+@SpringBootTest
+public class ItemChangeLogTest {
+
+    @Autowired
+    private ItemChangeLog changeLog;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long since;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        since = changeLog.read(0L, Integer.MAX_VALUE).next();
+    }
+
+    @Test
+    void mutations_ShouldWriteChangeRecordsInOrder() {
+        Item item = itemService.save(new Item(null, "Tracked", null, "NEW", "tracked@example.com"));
+        Item updated = itemService.update(item.getId(), new Item(null, "Renamed", null, "NEW", "tracked@example.com"));
+        itemService.processItemsInBatches().join();
+        itemService.deleteById(item.getId());
+
+        List<ItemChange> changes = changeLog.read(since, 100).changes();
+
+        assertEquals(List.of(ItemChangeType.CREATED, ItemChangeType.UPDATED, ItemChangeType.PROCESSED, ItemChangeType.DELETED),
+                changes.stream().map(ItemChange::getType).toList());
+        assertTrue(changes.stream().allMatch(change -> item.getId().equals(change.getItemId())));
+        assertEquals(updated.getVersion(), changes.get(1).getVersion());
+        assertEquals(updated.getVersion() + 1, changes.get(2).getVersion());
+    }
+
+    @Test
+    void rolledBackMutation_ShouldLeaveNoChangeRecord() {
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            itemService.save(new Item(null, "Rolled back", null, "NEW", null));
+            throw new IllegalStateException("rollback");
+        }));
+
+        assertTrue(changeLog.read(since, 100).changes().isEmpty());
+    }
+
+    @Test
+    void record_WithoutTransaction_ShouldFail() {
+        assertThrows(IllegalTransactionStateException.class, () -> changeLog.recordDeleted(List.of(1L)));
+    }
+
+    @Test
+    void read_ShouldHideChangesBehindAnUncommittedOne() throws Exception {
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread slowWriter = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            changeLog.recordDeleted(List.of(-1L));
+            recorded.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        slowWriter.start();
+        assertTrue(recorded.await(5, TimeUnit.SECONDS));
+
+        itemService.save(new Item(null, "Committed later in sequence", null, "NEW", null));
+        assertTrue(changeLog.read(since, 100).changes().isEmpty());
+
+        release.countDown();
+        slowWriter.join(5000);
+        assertEquals(2, changeLog.read(since, 100).changes().size());
+    }
+
+    @Test
+    void poll_ShouldCompleteWhenAChangeCommits() throws Exception {
+        DeferredResult<ItemChangePage> result = changeLog.poll(since, 100, Duration.ofSeconds(10));
+        assertFalse(result.hasResult());
+
+        Item item = itemService.save(new Item(null, "Awaited", null, "NEW", null));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!result.hasResult() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        ItemChangePage page = (ItemChangePage) result.getResult();
+        assertNotNull(page);
+        assertEquals(item.getId(), page.changes().get(0).getItemId());
+        assertEquals(page.changes().get(0).getSeq(), page.next());
+    }
+
+    @Test
+    void poll_WithoutWait_ShouldReturnEmptyPageImmediately() {
+        DeferredResult<ItemChangePage> result = changeLog.poll(since, 100, Duration.ZERO);
+
+        ItemChangePage page = (ItemChangePage) result.getResult();
+        assertTrue(page.changes().isEmpty());
+        assertEquals(since, page.next());
+    }
+}
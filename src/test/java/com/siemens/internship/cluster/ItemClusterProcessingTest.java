@@ -0,0 +1,300 @@
+package com.siemens.internship.cluster;
+
+import com.siemens.internship.InternshipApplication;
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemBatchProcessor;
+import com.siemens.internship.ItemProcessingResult;
+import com.siemens.internship.ItemRepository;
+import com.siemens.internship.ItemService;
+import com.siemens.internship.ProcessingMode;
+import com.siemens.internship.change.ItemChange;
+import com.siemens.internship.change.ItemChangeLog;
+import com.siemens.internship.job.JobStatus;
+import com.siemens.internship.job.ProcessingJob;
+import com.siemens.internship.job.ProcessingJobRepository;
+import com.siemens.internship.job.ProcessingJobService;
+import com.siemens.internship.pipeline.ItemPipeline;
+import com.siemens.internship.pipeline.ItemProcessor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for cluster-safe processing: two application instances share a file-based H2 database.
+ */
+public class ItemClusterProcessingTest {
+
+    private static final int ITEMS = 300;
+
+    @TempDir
+    static Path databaseDir;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        // AUTO_SERVER lets the first instance serve the database file to the others, as separate processes would
+        String url = "jdbc:h2:file:" + databaseDir.resolve("items") + ";AUTO_SERVER=TRUE";
+        nodeA = startNode(url, "node-a");
+        nodeB = startNode(url, "node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        ItemRepository itemRepository = nodeA.getBean(ItemRepository.class);
+        itemRepository.deleteAll();
+        nodeA.getBean(JdbcTemplate.class).update("DELETE FROM item_change");
+        itemRepository.saveAll(IntStream.rangeClosed(1, ITEMS)
+                .mapToObj(i -> new Item(null, "Item " + i, null, "NEW", "user" + i + "@example.com"))
+                .toList());
+    }
+
+    @Test
+    void processItemsAsync_ShouldSplitItemsBetweenNodes() throws Exception {
+        CompletableFuture<ItemProcessingResult> runA = nodeA.getBean(ItemService.class).processItemsAsync(ProcessingMode.INCREMENTAL);
+        CompletableFuture<ItemProcessingResult> runB = nodeB.getBean(ItemService.class).processItemsAsync(ProcessingMode.INCREMENTAL);
+
+        Set<Long> processedByA = ids(runA.get(30, TimeUnit.SECONDS).processed());
+        Set<Long> processedByB = ids(runB.get(30, TimeUnit.SECONDS).processed());
+
+        assertFalse(processedByA.isEmpty());
+        assertFalse(processedByB.isEmpty());
+        assertTrue(Collections.disjoint(processedByA, processedByB));
+        assertEquals(ITEMS, processedByA.size() + processedByB.size());
+        assertProcessedExactlyOnce();
+    }
+
+    @Test
+    void processAll_ShouldSplitChunksBetweenNodes() throws Exception {
+        List<Item> committedByA = Collections.synchronizedList(new ArrayList<>());
+        List<Item> committedByB = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<Void> runA = CompletableFuture.runAsync(() ->
+                nodeA.getBean(ItemBatchProcessor.class).processAll(ProcessingMode.INCREMENTAL, slowly(committedByA)));
+        CompletableFuture<Void> runB = CompletableFuture.runAsync(() ->
+                nodeB.getBean(ItemBatchProcessor.class).processAll(ProcessingMode.INCREMENTAL, slowly(committedByB)));
+        CompletableFuture.allOf(runA, runB).get(30, TimeUnit.SECONDS);
+
+        assertFalse(committedByA.isEmpty());
+        assertFalse(committedByB.isEmpty());
+        assertTrue(Collections.disjoint(ids(committedByA), ids(committedByB)));
+        assertEquals(ITEMS, committedByA.size() + committedByB.size());
+        assertProcessedExactlyOnce();
+    }
+
+    @Test
+    void pipeline_ShouldSplitItemsBetweenNodes() throws Exception {
+        List<Item> committedByA = Collections.synchronizedList(new ArrayList<>());
+        List<Item> committedByB = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<Void> runA = CompletableFuture.runAsync(() ->
+                nodeA.getBean(ItemPipeline.class).run(ProcessingMode.INCREMENTAL, slowly(committedByA)));
+        CompletableFuture<Void> runB = CompletableFuture.runAsync(() ->
+                nodeB.getBean(ItemPipeline.class).run(ProcessingMode.INCREMENTAL, slowly(committedByB)));
+        CompletableFuture.allOf(runA, runB).get(30, TimeUnit.SECONDS);
+
+        assertFalse(committedByA.isEmpty());
+        assertFalse(committedByB.isEmpty());
+        assertTrue(Collections.disjoint(ids(committedByA), ids(committedByB)));
+        assertEquals(ITEMS, committedByA.size() + committedByB.size());
+        assertProcessedExactlyOnce();
+    }
+
+    @Test
+    void resumeInterruptedJobs_ShouldOnlyTakeOverJobsOfStoppedNodes() throws Exception {
+        ProcessingJobRepository jobRepository = nodeA.getBean(ProcessingJobRepository.class);
+        // node C is still alive and running one job, node D stopped while running another
+        ProcessingJob live = jobRepository.save(runningJob("node-c/live", Instant.now().plusSeconds(60)));
+        ProcessingJob stale = jobRepository.save(runningJob("node-d/crashed", Instant.now().minusSeconds(60)));
+        try {
+            nodeB.getBean(ProcessingJobService.class).resumeInterruptedJobs();
+
+            ProcessingJob resumed = awaitFinished(jobRepository, stale.getId());
+            assertEquals(JobStatus.COMPLETED, resumed.getStatus());
+            assertEquals(ITEMS, resumed.getProcessedCount());
+            assertTrue(resumed.getOwner().startsWith("node-a/") || resumed.getOwner().startsWith("node-b/"));
+            assertProcessedExactlyOnce();
+
+            ProcessingJob untouched = jobRepository.findById(live.getId()).orElseThrow();
+            assertEquals(JobStatus.RUNNING, untouched.getStatus());
+            assertEquals("node-c/live", untouched.getOwner());
+            assertEquals(0, untouched.getProcessedCount());
+        } finally {
+            jobRepository.deleteById(live.getId());
+        }
+    }
+
+    @Test
+    void processAll_ShouldReclaimItemsOfCrashedNode() throws Exception {
+        // a node that died while holding a third of the items: its leases are no longer renewed
+        JdbcTemplate jdbcTemplate = nodeA.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("UPDATE item SET lease_owner = 'node-c/crashed', lease_expires_at = ? WHERE MOD(id, 3) = 0",
+                Timestamp.from(Instant.now().plusSeconds(1)));
+        List<Item> committed = Collections.synchronizedList(new ArrayList<>());
+
+        nodeA.getBean(ItemBatchProcessor.class).processAll(ProcessingMode.INCREMENTAL, committed::addAll);
+
+        assertEquals(ITEMS, committed.size());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM item WHERE processed_at IS NULL OR lease_owner IS NOT NULL", Integer.class));
+        assertProcessedExactlyOnce();
+    }
+
+    @Test
+    void changeFeed_ShouldNotSkipAChangeCommittedLaterOnAnotherNode() throws Exception {
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slowWriter = CompletableFuture.runAsync(() ->
+                nodeA.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+                    nodeA.getBean(ItemChangeLog.class).recordDeleted(List.of(-1L));
+                    recorded.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertTrue(recorded.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> laterWriter = CompletableFuture.runAsync(() ->
+                nodeB.getBean(TransactionTemplate.class).executeWithoutResult(status ->
+                        nodeB.getBean(ItemChangeLog.class).recordDeleted(List.of(-2L))));
+        ItemChangeLog feedOfB = nodeB.getBean(ItemChangeLog.class);
+
+        // node B knows nothing of node A's open transaction: its writer has to wait instead of committing a higher number
+        pause(200);
+        assertFalse(laterWriter.isDone());
+        assertTrue(feedOfB.read(0L, 100).changes().isEmpty());
+
+        release.countDown();
+        CompletableFuture.allOf(slowWriter, laterWriter).get(10, TimeUnit.SECONDS);
+        assertEquals(List.of(-1L, -2L), feedOfB.read(0L, 100).changes().stream().map(ItemChange::getItemId).toList());
+    }
+
+    private static ConfigurableApplicationContext startNode(String url, String nodeId) {
+        return new SpringApplicationBuilder(InternshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(context -> {
+                    context.getBeanFactory().registerSingleton("excludeTestConfigurations", new ExcludeTestConfigurations());
+                    context.getBeanFactory().registerSingleton("slowProcessor", (ItemProcessor) item -> pause(2));
+                })
+                // arguments rather than builder properties, which application.properties would override
+                .run("--spring.datasource.url=" + url,
+                        "--item.processing.chunk-size=20",
+                        "--item.pipeline.fetch.batch-size=20",
+                        "--item.cluster.enabled=true",
+                        "--item.cluster.node-id=" + nodeId,
+                        "--item.cluster.lease-duration=2s",
+                        "--item.cluster.heartbeat-interval=200ms");
+    }
+
+    private void assertProcessedExactlyOnce() {
+        Map<Long, Long> changes = nodeA.getBean(JdbcTemplate.class)
+                .queryForList("SELECT item_id FROM item_change WHERE type = 'PROCESSED'", Long.class).stream()
+                .collect(Collectors.groupingBy(id -> id, Collectors.counting()));
+        assertEquals(ITEMS, changes.size());
+        assertTrue(changes.values().stream().allMatch(count -> count == 1));
+    }
+
+    private static ProcessingJob runningJob(String owner, Instant heartbeatAt) {
+        ProcessingJob job = new ProcessingJob();
+        job.setStatus(JobStatus.RUNNING);
+        job.setCreatedAt(Instant.now());
+        job.setUpdatedAt(job.getCreatedAt());
+        job.setOwner(owner);
+        job.setHeartbeatAt(heartbeatAt);
+        return job;
+    }
+
+    private static ProcessingJob awaitFinished(ProcessingJobRepository jobRepository, Long jobId)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        ProcessingJob job = jobRepository.findById(jobId).orElseThrow();
+        while (job.getStatus().isActive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = jobRepository.findById(jobId).orElseThrow();
+        }
+        return job;
+    }
+
+    private static Consumer<List<Item>> slowly(List<Item> committed) {
+        return items -> {
+            committed.addAll(items);
+            pause(20);
+        };
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Set<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    /**
+     * Keeps the test configurations of other test classes out of the component scan of the nodes,
+     * like {@code @SpringBootTest} does for its own contexts.
+     */
+    private static final class ExcludeTestConfigurations extends TypeExcludeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ExcludeTestConfigurations;
+        }
+
+        @Override
+        public int hashCode() {
+            return ExcludeTestConfigurations.class.hashCode();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.siemens.internship.deadletter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for DeadLetterController.
+ */
+@WebMvcTest(DeadLetterController.class)
+public class DeadLetterControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DeadLetterStore deadLetterStore;
+
+    @Test
+    void getDeadLetters_ShouldReturnPage() throws Exception {
+        DeadLetterItem deadLetter = new DeadLetterItem(7L, "persist", 3, "java.sql.SQLTimeoutException", "timeout",
+                Instant.now());
+        deadLetter.setId(12L);
+        when(deadLetterStore.findPage(10L, 5)).thenReturn(List.of(deadLetter));
+
+        mockMvc.perform(get("/api/items/dead-letters").param("afterId", "10").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(12)))
+                .andExpect(jsonPath("$[0].itemId", is(7)))
+                .andExpect(jsonPath("$[0].attempts", is(3)))
+                .andExpect(jsonPath("$[0].reason", is("timeout")));
+    }
+
+    @Test
+    void getDeadLetters_WithInvalidLimit_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/items/dead-letters").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(deadLetterStore, never()).findPage(anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,50 @@
+package com.siemens.internship.deadletter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for DeadLetterStore.
+ */
+@SpringBootTest
+public class DeadLetterStoreTest {
+
+    @Autowired
+    private DeadLetterStore deadLetterStore;
+
+    @Autowired
+    private DeadLetterItemRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void recordAll_WhenItemFailsAgainInTheSameStage_ShouldUpdateItsEntry() {
+        deadLetterStore.recordAll(List.of(1L, 2L), "persist", 3, new QueryTimeoutException("timeout"));
+        deadLetterStore.record(2L, "persist", 1, new IllegalStateException("bad row"));
+        deadLetterStore.record(2L, "fetch", 3, new QueryTimeoutException("timeout"));
+
+        List<DeadLetterItem> entries = repository.findAll().stream()
+                .sorted(Comparator.comparing(DeadLetterItem::getItemId).thenComparing(DeadLetterItem::getStage))
+                .toList();
+
+        assertEquals(3, entries.size());
+        assertEquals(3, entries.get(0).getAttempts());
+        assertEquals("fetch", entries.get(1).getStage());
+        DeadLetterItem retried = entries.get(2);
+        assertEquals("persist", retried.getStage());
+        assertEquals(4, retried.getAttempts());
+        assertEquals(IllegalStateException.class.getName(), retried.getError());
+        assertEquals("bad row", retried.getReason());
+    }
+}
@@ -0,0 +1,78 @@
+package com.siemens.internship.job;
+
+import com.siemens.internship.exception.ProcessingJobNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for ProcessingJobController.
+ */
+@WebMvcTest(ProcessingJobController.class)
+public class ProcessingJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProcessingJobService jobService;
+
+    private ProcessingJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new ProcessingJob();
+        job.setId(7L);
+        job.setStatus(JobStatus.RUNNING);
+        job.setProcessedCount(500);
+    }
+
+    @Test
+    void submitJob_ShouldReturnAcceptedWithLocation() throws Exception {
+        when(jobService.submit()).thenReturn(job);
+
+        mockMvc.perform(post("/api/items/process/jobs"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", endsWith("/api/items/process/jobs/7")))
+                .andExpect(jsonPath("$.id", is(7)));
+    }
+
+    @Test
+    void getJob_ShouldReturnProgress() throws Exception {
+        when(jobService.findById(7L)).thenReturn(job);
+
+        mockMvc.perform(get("/api/items/process/jobs/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("RUNNING")))
+                .andExpect(jsonPath("$.processedCount", is(500)));
+    }
+
+    @Test
+    void getJob_WhenJobDoesNotExist_ShouldReturn404() throws Exception {
+        when(jobService.findById(99L)).thenThrow(new ProcessingJobNotFoundException(99L));
+
+        mockMvc.perform(get("/api/items/process/jobs/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void cancelJob_ShouldReturnCancelledJob() throws Exception {
+        job.setStatus(JobStatus.CANCELLED);
+        when(jobService.cancel(7L)).thenReturn(job);
+
+        mockMvc.perform(delete("/api/items/process/jobs/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("CANCELLED")));
+
+        verify(jobService).cancel(7L);
+    }
+}
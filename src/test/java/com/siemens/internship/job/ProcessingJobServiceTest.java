@@ -0,0 +1,115 @@
+package com.siemens.internship.job;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for ProcessingJobService, including resuming a job interrupted by a restart.
+ */
+@SpringBootTest
+public class ProcessingJobServiceTest {
+
+    @Autowired
+    private ProcessingJobService jobService;
+
+    @Autowired
+    private ProcessingJobRepository jobRepository;
+
+    @Autowired
+    private ProcessingJobChunkRepository chunkRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private List<Item> items;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(itemRepository.save(new Item(null, "Item " + i, null, "NEW", "item" + i + "@example.com")));
+        }
+    }
+
+    @Test
+    void submit_ShouldProcessAllItemsInBackground() throws Exception {
+        ProcessingJob job = jobService.submit();
+
+        ProcessingJob finished = awaitFinished(job.getId());
+
+        assertEquals(JobStatus.COMPLETED, finished.getStatus());
+        assertEquals(5, finished.getProcessedCount());
+        assertTrue(itemRepository.findAll().stream().allMatch(item -> "PROCESSED".equals(item.getStatus())));
+    }
+
+    @Test
+    void resumeInterruptedJobs_ShouldSkipCommittedChunksAndReplayPendingOnes() throws Exception {
+        // simulate a node that died after committing items[0..1] and while items[2] was in flight
+        ProcessingJob job = new ProcessingJob();
+        job.setStatus(JobStatus.RUNNING);
+        job.setProcessedCount(2);
+        job.setChunkCount(1);
+        job.setCreatedAt(Instant.now());
+        job = jobRepository.save(job);
+
+        ProcessingJobChunk done = new ProcessingJobChunk(job.getId(), items.get(0).getId(), items.get(1).getId());
+        done.setStatus(ProcessingJobChunk.ChunkStatus.DONE);
+        chunkRepository.save(done);
+        chunkRepository.save(new ProcessingJobChunk(job.getId(), items.get(2).getId(), items.get(2).getId()));
+
+        jobService.resumeInterruptedJobs();
+        ProcessingJob finished = awaitFinished(job.getId());
+
+        assertEquals(JobStatus.COMPLETED, finished.getStatus());
+        assertEquals(5, finished.getProcessedCount());
+        // the committed chunk is not reprocessed
+        assertEquals("NEW", itemRepository.findById(items.get(0).getId()).orElseThrow().getStatus());
+        assertEquals("NEW", itemRepository.findById(items.get(1).getId()).orElseThrow().getStatus());
+        for (Item item : items.subList(2, 5)) {
+            assertEquals("PROCESSED", itemRepository.findById(item.getId()).orElseThrow().getStatus());
+        }
+        assertTrue(chunkRepository.findByJobIdAndStatusOrderByFirstId(job.getId(),
+                ProcessingJobChunk.ChunkStatus.PENDING).isEmpty());
+    }
+
+    @Test
+    void cancel_WhenJobIsPending_ShouldCancelIt() {
+        ProcessingJob job = new ProcessingJob();
+        job.setStatus(JobStatus.PENDING);
+        job = jobRepository.save(job);
+
+        ProcessingJob cancelled = jobService.cancel(job.getId());
+
+        assertEquals(JobStatus.CANCELLED, cancelled.getStatus());
+    }
+
+    @Test
+    void cancel_WhenJobIsFinished_ShouldLeaveItUnchanged() throws Exception {
+        ProcessingJob job = awaitFinished(jobService.submit().getId());
+
+        ProcessingJob result = jobService.cancel(job.getId());
+
+        assertEquals(JobStatus.COMPLETED, result.getStatus());
+    }
+
+    private ProcessingJob awaitFinished(Long jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ProcessingJob job = jobService.findById(jobId);
+        while (job.getStatus().isActive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = jobService.findById(jobId);
+        }
+        return job;
+    }
+}
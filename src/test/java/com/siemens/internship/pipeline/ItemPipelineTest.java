@@ -0,0 +1,177 @@
+package com.siemens.internship.pipeline;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemRepository;
+import com.siemens.internship.ProcessingMode;
+import com.siemens.internship.deadletter.DeadLetterItem;
+import com.siemens.internship.deadletter.DeadLetterItemRepository;
+import com.siemens.internship.exception.ItemValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for ItemPipeline.
+ */
+@SpringBootTest(properties = {
+        "item.pipeline.queue-capacity=4",
+        "item.pipeline.fetch.batch-size=7",
+        "item.pipeline.transform.parallelism=3",
+        "item.pipeline.transform.batch-size=5",
+        "item.pipeline.persist.batch-size=11"
+})
+@Import(ItemPipelineTest.OversizedDescriptionConfiguration.class)
+public class ItemPipelineTest {
+
+    private static final String OVERSIZED = "Oversized";
+
+    @Autowired
+    private ItemPipeline pipeline;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private DeadLetterItemRepository deadLetterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        deadLetterRepository.deleteAll();
+    }
+
+    @Test
+    void run_ShouldProcessAndPersistEveryItem() {
+        itemRepository.saveAll(IntStream.rangeClosed(1, 50)
+                .mapToObj(i -> new Item(null, " Item  " + i, null, "NEW", "User" + i + "@Example.com"))
+                .toList());
+        List<Item> committed = Collections.synchronizedList(new ArrayList<>());
+
+        PipelineSummary summary = pipeline.run(ProcessingMode.FULL, committed::addAll);
+
+        assertEquals(50, summary.processed());
+        assertEquals(0, summary.skipped());
+        assertEquals(50, committed.size());
+        assertEquals(List.of("fetch", "transform", "persist"), summary.stages().stream().map(PipelineSummary.Stage::name).toList());
+        assertTrue(summary.stages().stream().allMatch(stage -> stage.items() == 50));
+        assertTrue(summary.stages().stream().allMatch(stage -> stage.batches() >= 50 / stage.batchSize()));
+        for (Item item : itemRepository.findAll()) {
+            assertEquals("PROCESSED", item.getStatus());
+            assertNotNull(item.getProcessedAt());
+            assertTrue(item.getName().matches("Item \\d+"));
+            assertEquals(item.getEmail().toLowerCase(), item.getEmail());
+        }
+    }
+
+    @Test
+    void run_Incremental_ShouldSkipProcessedItems() {
+        itemRepository.saveAll(List.of(
+                new Item(null, "First", null, "NEW", null),
+                new Item(null, "Second", null, "NEW", null)));
+        pipeline.run(ProcessingMode.FULL, items -> {
+        });
+        itemRepository.save(new Item(null, "Third", null, "NEW", null));
+
+        PipelineSummary summary = pipeline.run(ProcessingMode.INCREMENTAL, items -> {
+        });
+
+        assertEquals(1, summary.processed());
+    }
+
+    @Test
+    void run_ConcurrentRuns_ShouldEachGetTheirOwnWorkers() throws Exception {
+        itemRepository.saveAll(IntStream.rangeClosed(1, 200)
+                .mapToObj(i -> new Item(null, "Item " + i, null, "NEW", null))
+                .toList());
+
+        CompletableFuture<PipelineSummary> full = CompletableFuture.supplyAsync(() -> pipeline.run(ProcessingMode.FULL, items -> {
+        }));
+        CompletableFuture<PipelineSummary> incremental = CompletableFuture.supplyAsync(() -> pipeline.run(ProcessingMode.INCREMENTAL, items -> {
+        }));
+
+        assertTrue(full.get(30, TimeUnit.SECONDS).processed() > 0);
+        incremental.get(30, TimeUnit.SECONDS);
+        assertTrue(itemRepository.findAll().stream().allMatch(item -> item.getProcessedAt() != null));
+    }
+
+    @Test
+    void run_WhenAnItemFailsValidation_ShouldDeadLetterItAndProcessTheRest() {
+        itemRepository.saveAll(IntStream.rangeClosed(1, 30)
+                .mapToObj(i -> new Item(null, "Item " + i, null, "NEW", null))
+                .toList());
+        // bypasses bean validation, like a row written by another application
+        jdbcTemplate.update("UPDATE item SET email = 'broken' WHERE name = 'Item 15'");
+
+        PipelineSummary summary = pipeline.run(ProcessingMode.FULL, items -> {
+        });
+
+        assertEquals(29, summary.processed());
+        assertEquals(1, summary.failed());
+        Item broken = itemRepository.findAll().stream().filter(item -> "broken".equals(item.getEmail())).findFirst().orElseThrow();
+        assertNull(broken.getProcessedAt());
+        List<DeadLetterItem> deadLetters = deadLetterRepository.findAll();
+        assertEquals(1, deadLetters.size());
+        assertEquals(broken.getId(), deadLetters.get(0).getItemId());
+        assertEquals(ItemPipeline.TRANSFORM, deadLetters.get(0).getStage());
+        assertEquals(ItemValidationException.class.getName(), deadLetters.get(0).getError());
+    }
+
+    @Test
+    void run_WhenOneRowOfABatchCannotBeWritten_ShouldOnlyDeadLetterThatRow() {
+        itemRepository.saveAll(IntStream.rangeClosed(1, 11)
+                .mapToObj(i -> new Item(null, i == 4 ? OVERSIZED : "Item " + i, null, "NEW", null))
+                .toList());
+
+        PipelineSummary summary = pipeline.run(ProcessingMode.FULL, items -> {
+        });
+
+        assertEquals(10, summary.processed());
+        assertEquals(1, summary.failed());
+        List<DeadLetterItem> deadLetters = deadLetterRepository.findAll();
+        assertEquals(1, deadLetters.size());
+        assertEquals(ItemPipeline.PERSIST, deadLetters.get(0).getStage());
+        assertEquals(1, deadLetters.get(0).getAttempts());
+        assertEquals(1, itemRepository.findAll().stream().filter(item -> item.getProcessedAt() == null).count());
+    }
+
+    /**
+     * Produces a description longer than its column for one item, which fails the whole batch on write.
+     */
+    @TestConfiguration
+    static class OversizedDescriptionConfiguration {
+
+        @Bean
+        ItemProcessor oversizedDescription() {
+            return new ItemProcessor() {
+                @Override
+                public String name() {
+                    return "OversizedDescription";
+                }
+
+                @Override
+                public void process(Item item) {
+                    if (OVERSIZED.equals(item.getName())) {
+                        item.setDescription("x".repeat(300));
+                    }
+                }
+            };
+        }
+    }
+}
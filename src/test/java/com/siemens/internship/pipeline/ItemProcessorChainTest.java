@@ -0,0 +1,56 @@
+package com.siemens.internship.pipeline;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemValidator;
+import com.siemens.internship.exception.ItemValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ItemProcessorChain and the built-in processors.
+ */
+public class ItemProcessorChainTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ItemProcessorChain chain;
+
+    @BeforeEach
+    void setUp() {
+        chain = new ItemProcessorChain(List.of(new TextNormalizer(), new EmailNormalizer(),
+                new ValidatingProcessor(new ItemValidator())), registry);
+    }
+
+    @Test
+    void apply_ShouldNormalizeTextAndEmail() {
+        Item item = chain.apply(new Item(1L, "  Big \t box ", "   ", "NEW", " Someone@Example.COM"));
+
+        assertEquals("Big box", item.getName());
+        assertNull(item.getDescription());
+        assertEquals("someone@example.com", item.getEmail());
+    }
+
+    @Test
+    void apply_ShouldValidateNormalizedValues() {
+        ItemValidationException ex = assertThrows(ItemValidationException.class,
+                () -> chain.apply(new Item(7L, "   ", null, "NEW", "not-an-email")));
+
+        assertEquals("Item 7 is invalid: email: Email must be valid, name: must not be empty", ex.getMessage());
+    }
+
+    @Test
+    void apply_ShouldTimeEveryProcessor() {
+        chain.apply(new Item(1L, "Item", null, "NEW", null));
+        chain.apply(new Item(2L, "Item", null, "NEW", null));
+
+        assertEquals(List.of("TextNormalizer", "EmailNormalizer", "ValidatingProcessor"), chain.names());
+        for (String name : chain.names()) {
+            assertEquals(2, registry.get("item.pipeline.processor.duration").tag("processor", name).timer().count());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.siemens.internship.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StartupReport.
+ */
+public class StartupReportTest {
+
+    @Test
+    void of_ShouldRankBeansBySelfTimeAndSumPhasesByName() throws Exception {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        startup.startRecording();
+
+        StartupStep refresh = startup.start("spring.context.refresh");
+        StartupStep service = startup.start(StartupReport.BEAN_INSTANTIATION).tag("beanName", "service");
+        StartupStep repository = startup.start(StartupReport.BEAN_INSTANTIATION).tag("beanName", "repository");
+        Thread.sleep(60);
+        repository.end();
+        Thread.sleep(5);
+        service.end();
+        refresh.end();
+        startup.start("spring.data.repository.init").end();
+        startup.start("spring.data.repository.init").end();
+
+        StartupReport report = StartupReport.of(startup.getBufferedTimeline(), Duration.ofSeconds(1), 10);
+
+        // the service took longer in total, but most of it was spent creating the repository
+        assertEquals(List.of("repository", "service"), report.beans().stream().map(StartupReport.Entry::name).toList());
+        assertTrue(report.beans().get(0).duration().toMillis() >= 60);
+        assertTrue(report.beans().get(1).duration().toMillis() < 60);
+        assertEquals("spring.context.refresh", report.phases().get(0).name());
+        assertEquals(2, report.phases().size());
+        assertTrue(report.format().startsWith("Started in 1000 ms"));
+    }
+
+    @Test
+    void of_ShouldLimitEntriesToSize() {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        startup.startRecording();
+        for (int i = 0; i < 5; i++) {
+            startup.start(StartupReport.BEAN_INSTANTIATION).tag("beanName", "bean" + i).end();
+            startup.start("phase" + i).end();
+        }
+
+        StartupReport report = StartupReport.of(startup.getBufferedTimeline(), Duration.ofMillis(10), 3);
+
+        assertEquals(3, report.beans().size());
+        assertEquals(3, report.phases().size());
+    }
+}
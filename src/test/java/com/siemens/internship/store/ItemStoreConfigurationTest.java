@@ -0,0 +1,33 @@
+package com.siemens.internship.store;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.NestedExceptionUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ItemStoreConfiguration.
+ */
+public class ItemStoreConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ItemStoreConfiguration.class);
+
+    @Test
+    void mappedItemStore_ShouldFailStartup() {
+        contextRunner.withPropertyValues("item.storage.type=MAPPED").run(context -> {
+            Throwable failure = NestedExceptionUtils.getMostSpecificCause(context.getStartupFailure());
+            assertInstanceOf(IllegalStateException.class, failure);
+            assertTrue(failure.getMessage().contains("item.storage.type=MAPPED"));
+        });
+    }
+
+    @Test
+    void jpaItemStore_ShouldNotBeAffected() {
+        contextRunner.withPropertyValues("item.storage.type=JPA").run(context -> {
+            assertNull(context.getStartupFailure());
+            assertFalse(context.containsBean("mappedItemStore"));
+        });
+    }
+}
@@ -0,0 +1,268 @@
+package com.siemens.internship.store;
+
+import com.siemens.internship.Item;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MappedItemStore.
+ */
+public class MappedItemStoreTest {
+
+    // small segments, so that the tests cross segment boundaries and trigger compaction
+    private static final int RECORDS_PER_SEGMENT = 10;
+
+    @TempDir
+    Path directory;
+
+    private MappedItemStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void save_ShouldAssignIdsAndVersionsAndStoreAllFields() {
+        Item item = new Item(null, "Item ünïcödé", null, "NEW", "user@example.com");
+        Instant modifiedAt = Instant.parse("2024-05-01T10:15:30.123456789Z");
+        item.setModifiedAt(modifiedAt);
+
+        Item saved = store.save(item);
+        Item second = store.save(new Item(null, "Second", "Description", "NEW", "second@example.com"));
+
+        assertEquals(1L, saved.getId());
+        assertEquals(2L, second.getId());
+        assertEquals(0L, saved.getVersion());
+        Item found = store.findById(1L).orElseThrow();
+        assertEquals("Item ünïcödé", found.getName());
+        assertNull(found.getDescription());
+        assertEquals("NEW", found.getStatus());
+        assertEquals("user@example.com", found.getEmail());
+        assertEquals(modifiedAt, found.getModifiedAt());
+        assertNull(found.getProcessedAt());
+        assertEquals(0L, found.getVersion());
+    }
+
+    @Test
+    void save_ShouldReplaceItemAndBumpVersion() {
+        Item item = store.save(new Item(null, "Item", null, "NEW", null));
+
+        store.save(new Item(item.getId(), "Renamed", null, "PROCESSED", null, 0L));
+
+        Item found = store.findById(item.getId()).orElseThrow();
+        assertEquals("Renamed", found.getName());
+        assertEquals("PROCESSED", found.getStatus());
+        assertEquals(1L, found.getVersion());
+        assertEquals(1, store.count());
+    }
+
+    @Test
+    void save_ShouldRejectStaleVersion() {
+        Item item = store.save(new Item(null, "Item", null, "NEW", null));
+        store.save(new Item(item.getId(), "First writer", null, "NEW", null, 0L));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> store.save(new Item(item.getId(), "Second writer", null, "NEW", null, 0L)));
+        assertEquals("First writer", store.findById(item.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void save_ShouldRejectFieldsLargerThanRecord() {
+        Item item = new Item(null, "x".repeat(300), null, "NEW", null);
+
+        assertThrows(IllegalArgumentException.class, () -> store.save(item));
+        assertEquals(0, store.count());
+        assertNull(item.getId());
+        assertNull(item.getVersion());
+    }
+
+    @Test
+    void save_WithIdSupplier_ShouldTakeIdsFromIt() {
+        store.close();
+        List<Long> sequence = new ArrayList<>(List.of(1L, 51L, 101L));
+        store = new MappedItemStore(properties(), new SequenceIdBlocks(() -> sequence.remove(0), 50));
+
+        List<Long> ids = LongStream.rangeClosed(1, 3)
+                .mapToObj(i -> store.save(new Item(null, "Item " + i, null, "NEW", null)).getId())
+                .toList();
+
+        // the initial value reserves only itself, every later value the block below it
+        assertEquals(List.of(1L, 2L, 3L), ids);
+        assertEquals(List.of(101L), sequence);
+    }
+
+    @Test
+    void update_ShouldCheckVersionAndMarkItemModified() {
+        Item item = new Item(null, "Item", null, "NEW", null);
+        item.markProcessed(Instant.parse("2024-05-01T10:00:00Z"));
+        store.save(item);
+        Instant now = Instant.parse("2024-05-02T10:00:00Z");
+
+        assertEquals(Optional.of(1L), store.update(item.getId(), new Item(null, "Renamed", "New", "NEW", null), 0L, now));
+        assertEquals(Optional.empty(), store.update(item.getId(), new Item(null, "Stale", null, "NEW", null), 0L, now));
+        assertEquals(Optional.empty(), store.update(99L, new Item(null, "Missing", null, "NEW", null), null, now));
+
+        Item found = store.findById(item.getId()).orElseThrow();
+        assertEquals("Renamed", found.getName());
+        assertEquals("New", found.getDescription());
+        assertEquals(1L, found.getVersion());
+        assertEquals(now, found.getModifiedAt());
+        assertNull(found.getProcessedAt());
+        assertEquals(List.of(item.getId()), store.findUnprocessedIds());
+    }
+
+    @Test
+    void findUnprocessedIds_ShouldSkipProcessedItems() {
+        LongStream.rangeClosed(1, 4).forEach(i -> store.save(new Item(null, "Item " + i, null, "NEW", null)));
+        Item processed = store.findById(2L).orElseThrow();
+        processed.markProcessed(Instant.now());
+        store.save(processed);
+
+        assertEquals(List.of(1L, 3L, 4L), store.findUnprocessedIds());
+    }
+
+    @Test
+    void deleteById_ShouldRemoveItem() {
+        Item item = store.save(new Item(null, "Item", null, "NEW", null));
+
+        assertTrue(store.deleteById(item.getId()));
+        assertFalse(store.deleteById(item.getId()));
+        assertTrue(store.findById(item.getId()).isEmpty());
+        assertEquals(0, store.count());
+    }
+
+    @Test
+    void deleteById_WithStaleVersion_ShouldKeepItem() {
+        Item item = store.save(new Item(null, "Item", null, "NEW", null));
+        store.save(new Item(item.getId(), "Updated", null, "NEW", null, 0L));
+
+        assertFalse(store.deleteById(item.getId(), 0L));
+        assertTrue(store.existsById(item.getId()));
+        assertTrue(store.deleteById(item.getId(), 1L));
+        assertFalse(store.existsById(item.getId()));
+    }
+
+    @Test
+    void findAllIds_ShouldReturnIdsInAscendingOrder() {
+        LongStream.rangeClosed(1, 25).forEach(i -> store.save(new Item(null, "Item " + i, null, "NEW", null)));
+        store.deleteById(7L);
+
+        List<Long> ids = store.findAllIds();
+
+        assertEquals(LongStream.rangeClosed(1, 25).filter(id -> id != 7).boxed().toList(), ids);
+        assertTrue(store.segmentCount() > 1);
+    }
+
+    @Test
+    void open_ShouldRecoverStateFromSegments() {
+        LongStream.rangeClosed(1, 25).forEach(i -> store.save(new Item(null, "Item " + i, null, "NEW", null)));
+        store.save(new Item(3L, "Updated", null, "PROCESSED", null, 0L));
+        store.deleteById(5L);
+        store.close();
+
+        store = open();
+
+        assertEquals(24, store.count());
+        assertEquals("Updated", store.findById(3L).orElseThrow().getName());
+        assertEquals(1L, store.findById(3L).orElseThrow().getVersion());
+        assertTrue(store.findById(5L).isEmpty());
+        assertEquals(26L, store.save(new Item(null, "Next", null, "NEW", null)).getId());
+    }
+
+    @Test
+    void open_ShouldDiscardTornRecordAndAppendAfterLastValidOne() throws Exception {
+        store.save(new Item(null, "First", null, "NEW", null));
+        store.save(new Item(null, "Second", null, "NEW", null));
+        store.close();
+        // a crash in the middle of the second write: part of the record made it to disk
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            file.seek(MappedItemStore.RECORD_SIZE + 100);
+            file.write(new byte[]{1, 2, 3});
+        }
+
+        store = open();
+
+        assertEquals(List.of(1L), store.findAllIds());
+        assertEquals(2L, store.save(new Item(null, "Rewritten", null, "NEW", null)).getId());
+        store.close();
+        store = open();
+        assertEquals("Rewritten", store.findById(2L).orElseThrow().getName());
+    }
+
+    @Test
+    void compact_ShouldDropSupersededRecordsAndKeepState() throws Exception {
+        LongStream.rangeClosed(1, 5).forEach(i -> store.save(new Item(null, "Item " + i, null, "NEW", null)));
+        for (int round = 0; round < 4; round++) {
+            for (long id = 1; id <= 5; id++) {
+                store.save(new Item(id, "Round " + round, null, "NEW", null));
+            }
+        }
+        store.deleteById(5L);
+        store.deleteById(2L);
+
+        store.compact();
+
+        assertEquals(1, store.segmentCount());
+        assertEquals(1, segments().size());
+        assertEquals(List.of(1L, 3L, 4L), store.findAllIds());
+        assertEquals("Round 3", store.findById(1L).orElseThrow().getName());
+        assertEquals(4L, store.findById(1L).orElseThrow().getVersion());
+        store.close();
+        store = open();
+        assertEquals(List.of(1L, 3L, 4L), store.findAllIds());
+        // the deleted highest id is not handed out again
+        assertEquals(6L, store.save(new Item(null, "Next", null, "NEW", null)).getId());
+    }
+
+    @Test
+    void save_ShouldCompactOnceMostRecordsAreSuperseded() throws Exception {
+        store.save(new Item(null, "Item", null, "NEW", null));
+        for (int i = 0; i < 50; i++) {
+            store.save(new Item(1L, "Update " + i, null, "NEW", null));
+        }
+
+        assertTrue(segments().size() <= 2);
+        assertEquals("Update 49", store.findById(1L).orElseThrow().getName());
+        assertEquals(50L, store.findById(1L).orElseThrow().getVersion());
+    }
+
+    private MappedItemStore open() {
+        return new MappedItemStore(properties());
+    }
+
+    private ItemStorageProperties properties() {
+        ItemStorageProperties properties = new ItemStorageProperties();
+        properties.setType(ItemStorageProperties.Type.MAPPED);
+        properties.setDirectory(directory);
+        properties.setSegmentSize(DataSize.ofBytes((long) RECORDS_PER_SEGMENT * MappedItemStore.RECORD_SIZE));
+        return properties;
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
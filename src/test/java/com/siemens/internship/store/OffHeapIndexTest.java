@@ -0,0 +1,59 @@
+package com.siemens.internship.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OffHeapIndex.
+ */
+public class OffHeapIndexTest {
+
+    @Test
+    void put_ShouldOverwriteExistingKey() {
+        OffHeapIndex index = new OffHeapIndex(0);
+
+        index.put(42L, 1L);
+        index.put(42L, 2L);
+
+        assertEquals(2L, index.get(42L));
+        assertEquals(1, index.size());
+        assertEquals(OffHeapIndex.ABSENT, index.get(43L));
+    }
+
+    @Test
+    void put_ShouldRejectNonPositiveKeys() {
+        OffHeapIndex index = new OffHeapIndex(0);
+
+        assertThrows(IllegalArgumentException.class, () -> index.put(0L, 1L));
+    }
+
+    @Test
+    void operations_ShouldMatchHashMapAcrossGrowthAndRemovals() {
+        OffHeapIndex index = new OffHeapIndex(0);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, index.remove(key));
+            } else {
+                index.put(key, i);
+                expected.put(key, (long) i);
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+        for (long key = 1; key <= 20_000; key++) {
+            assertEquals(expected.getOrDefault(key, OffHeapIndex.ABSENT), index.get(key));
+        }
+        Map<Long, Long> iterated = new HashMap<>();
+        index.forEachKey(key -> iterated.put(key, index.get(key)));
+        assertEquals(expected, iterated);
+    }
+}
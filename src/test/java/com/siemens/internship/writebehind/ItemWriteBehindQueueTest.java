@@ -0,0 +1,118 @@
+package com.siemens.internship.writebehind;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemRepository;
+import com.siemens.internship.change.ItemChangeLog;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for ItemWriteBehindQueue.
+ */
+@SpringBootTest(properties = {
+        "item.write-behind.enabled=true",
+        "item.write-behind.max-batch-size=10",
+        "item.write-behind.max-delay=200ms"
+})
+public class ItemWriteBehindQueueTest {
+
+    @Autowired
+    private ItemWriteBehindQueue writeBehind;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ItemChangeLog changeLog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void submit_ShouldCommitQueuedItemsInGroups() throws Exception {
+        DistributionSummary groupSize = registry.get("item.write.behind.group.size").summary();
+        long groupsBefore = groupSize.count();
+
+        List<CompletableFuture<Item>> results = IntStream.rangeClosed(1, 25)
+                .mapToObj(i -> writeBehind.submit(newItem("Queued " + i)))
+                .toList();
+
+        for (CompletableFuture<Item> result : results) {
+            assertNotNull(result.get(5, TimeUnit.SECONDS).getId());
+        }
+        assertEquals(25, itemRepository.count());
+        assertEquals(25, results.stream().map(CompletableFuture::join).map(Item::getId).distinct().count());
+        // 25 items with groups of at most 10 that wait 200ms to fill
+        assertEquals(3, groupSize.count() - groupsBefore);
+        assertEquals(25, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM item_change WHERE type = 'CREATED' AND item_id IN (SELECT id FROM item)",
+                Integer.class));
+    }
+
+    @Test
+    void submit_ShouldOnlyFailTheCallerOfTheBadItem() throws Exception {
+        Item tooLong = newItem("Too long");
+        tooLong.setDescription("x".repeat(300));
+
+        CompletableFuture<Item> good = writeBehind.submit(newItem("Good"));
+        CompletableFuture<Item> bad = writeBehind.submit(tooLong);
+        CompletableFuture<Item> other = writeBehind.submit(newItem("Other"));
+
+        assertNotNull(good.get(5, TimeUnit.SECONDS).getId());
+        assertNotNull(other.get(5, TimeUnit.SECONDS).getId());
+        assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertNull(tooLong.getId());
+        assertEquals(2, itemRepository.count());
+    }
+
+    @Test
+    void shutdown_ShouldCommitEverythingStillQueued() throws Exception {
+        ItemWriteBehindProperties properties = new ItemWriteBehindProperties();
+        properties.setEnabled(true);
+        // groups would wait far longer than the test, only the shutdown flushes them
+        properties.setMaxDelay(Duration.ofHours(1));
+        ItemWriteBehindQueue queue = new ItemWriteBehindQueue(itemRepository, transactionTemplate, changeLog,
+                properties, new SimpleMeterRegistry());
+        List<CompletableFuture<Item>> results = IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> queue.submit(newItem("Pending " + i)))
+                .toList();
+
+        queue.shutdown();
+
+        assertTrue(results.stream().allMatch(result -> result.isDone() && !result.isCompletedExceptionally()));
+        assertEquals(3, itemRepository.count());
+        assertThrows(RejectedExecutionException.class, () -> queue.submit(newItem("Late")));
+    }
+
+    private static Item newItem(String name) {
+        return new Item(null, name, null, "NEW", "writer@example.com");
+    }
+}